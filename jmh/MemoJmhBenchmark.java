@@ -0,0 +1,60 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of {@link Dynamic} with each memo backend, the JMH counterpart of the
+ * timings in {@link MemoBenchmark}.
+ * <p>
+ * The off-heap memo gets OFF_HEAP_BUDGET of direct memory, enough to hold every
+ * entry of these instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoJmhBenchmark {
+
+    private static final long OFF_HEAP_BUDGET = 64L << 20;
+
+    @Param({"MemoTable", "Adaptive", "OffHeap"})
+    public String memo;
+
+    @Param({"random_RDD=0.6_TF=0.6_#50", "random_RDD=0.2_TF=0.6_#100"})
+    public String instance;
+
+    private int[][] jobs;
+
+    @Setup(Level.Trial)
+    public void read() {
+        jobs = SolverBenchmark.readEntry(System.getProperty("instances", "data/provided"), instance, 0).jobs;
+    }
+
+    @Benchmark
+    public int solve() throws Exception {
+        int[][] copy = new int[jobs.length][];
+        for (int x = 0; x < jobs.length; x++)
+            copy[x] = jobs[x].clone();
+
+        Dynamic dynamic = new Dynamic(new ProblemInstance(copy.length, copy));
+        if (memo.equals("Adaptive"))
+            dynamic.enableAdaptiveMemo();
+        else if (memo.equals("OffHeap"))
+            dynamic.enableOffHeapMemo(OFF_HEAP_BUDGET);
+
+        return dynamic.calculateTardiness();
+    }
+}
@@ -0,0 +1,141 @@
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of every solver over both instance sets by n, RDD and TF, the JMH
+ * counterpart of {@link SolverBenchmark}.
+ * <p>
+ * In data/provided the instance is random_RDD=r_TF=t_#n. The names in data/additional
+ * only hold n, its instances come in blocks of ten per RDD and then TF, so the first
+ * of the block is taken. Combinations a set does not have, like n = 10 or TF = 1.0
+ * in data/additional, fail in setup and are reported as errors.
+ * <p>
+ * BestFirst enumerates schedules, so it has its own benchmark on the provided
+ * instances of at most {@link SolverBenchmark#BEST_FIRST_MAX_N} jobs.
+ * <p>
+ * The sets are read from the directory in the system property "data", data by
+ * default. Every invocation solves a fresh copy of the jobs, as the solvers sort them
+ * in place. Allocation per operation comes from the gc profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverJmhBenchmark {
+
+    private static final String[] RDDS = {"0.2", "0.4", "0.6", "0.8", "1.0"};
+    private static final String[] ADDITIONAL_TFS = {"0.2", "0.4", "0.6", "0.8"};
+
+    /**
+     * Instances per (RDD, TF) block in data/additional
+     */
+    private static final int ADDITIONAL_BLOCK = 10;
+
+    @State(Scope.Benchmark)
+    public static class Instance {
+
+        @Param({"Greedy", "Dynamic", "DynamicSequence", "Approx"})
+        public String solver;
+
+        @Param({"provided", "additional"})
+        public String set;
+
+        @Param({"10", "50", "100"})
+        public int n;
+
+        @Param({"0.2", "0.6", "1.0"})
+        public String rdd;
+
+        @Param({"0.2", "0.6"})
+        public String tf;
+
+        int[][] jobs;
+
+        @Setup(Level.Trial)
+        public void read() {
+            jobs = readJobs(set, n, rdd, tf);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SmallInstance {
+
+        @Param({"5"})
+        public int n;
+
+        @Param({"0.2", "0.6", "1.0"})
+        public String rdd;
+
+        @Param({"0.2", "0.6"})
+        public String tf;
+
+        int[][] jobs;
+
+        @Setup(Level.Trial)
+        public void read() {
+            if (n > SolverBenchmark.BEST_FIRST_MAX_N)
+                throw new IllegalArgumentException("BestFirst only runs up to n = "
+                        + SolverBenchmark.BEST_FIRST_MAX_N + ", not " + n);
+
+            jobs = readJobs("provided", n, rdd, tf);
+        }
+    }
+
+    @Benchmark
+    public int solve(Instance instance) throws Exception {
+        return SolverBenchmark.solve(instance.solver, instance.jobs);
+    }
+
+    @Benchmark
+    public int bestFirst(SmallInstance instance) throws Exception {
+        return SolverBenchmark.solve("BestFirst", instance.jobs);
+    }
+
+    /**
+     * The jobs of the instance of a set with the given n, RDD and TF.
+     */
+    static int[][] readJobs(String set, int n, String rdd, String tf) {
+        String root = System.getProperty("data", "data") + '/' + set;
+        String name;
+
+        if (set.equals("provided")) {
+            name = "random_RDD=" + rdd + "_TF=" + tf + "_#" + n;
+        } else if (set.equals("additional")) {
+            int r = indexOf(RDDS, rdd);
+            int t = indexOf(ADDITIONAL_TFS, tf);
+            if (r < 0 || t < 0)
+                throw new IllegalArgumentException("No instance with RDD=" + rdd + " and TF=" + tf + " in " + root);
+
+            name = n + "-" + ((r * ADDITIONAL_TFS.length + t) * ADDITIONAL_BLOCK + 1);
+        } else {
+            throw new IllegalArgumentException("Unknown instance set: " + set);
+        }
+
+        if (!Files.exists(Paths.get(root, name + ".dat")))
+            throw new IllegalArgumentException("No instance with n=" + n + " in " + root);
+
+        return SolverBenchmark.readEntry(root, name, 0).jobs;
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int x = 0; x < values.length; x++)
+            if (values[x].equals(value))
+                return x;
+        return -1;
+    }
+}
@@ -0,0 +1,352 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Memo for (i,j,k,t) sub-problems that picks a backend per (i,j,k) bucket.
+ * <p>
+ * The start times t cached for one (i,j,k) are sparse when processing times are
+ * large, but close to dense when they are small. Every bucket therefore starts in
+ * a shared primitive {@link MemoTable}, and moves to a flat array over its range of
+ * t once at least 1/DENSE_FILL of that range is filled:
+ * <ul>
+ *     <li>{@link #SPARSE}: entries in the shared hash table</li>
+ *     <li>{@link #DENSE}: an int[] on the heap, indexed by t minus the start of the range</li>
+ *     <li>{@link #OFF_HEAP}: the same, in a direct buffer, for ranges of at least
+ *     OFF_HEAP_CELLS, which the garbage collector then does not have to copy</li>
+ * </ul>
+ * A flat range only grows while it stays 1/DENSE_FILL filled. An entry too far
+ * outside it goes to the shared table instead, and moves into the range once the
+ * range grows over it.
+ * <p>
+ * The direct buffers are freed as soon as they are replaced, and all of them on
+ * {@link #close()}. Like {@link MemoTable}, -1 means a missing entry.
+ */
+public class AdaptiveMemo {
+
+    public static final int SPARSE = 0;
+    public static final int DENSE = 1;
+    public static final int OFF_HEAP = 2;
+
+    public static final String[] BACKENDS = {"sparse", "dense", "off-heap"};
+
+    /**
+     * A bucket is dense once it holds at least MIN_DENSE entries that fill at least
+     * 1/DENSE_FILL of its range of t
+     */
+    private static final int MIN_DENSE = 16;
+    private static final int DENSE_FILL = 4;
+
+    /**
+     * Dense ranges of at least this many cells are kept off the heap
+     */
+    private static final int OFF_HEAP_CELLS = 4096;
+
+    /**
+     * Sparse entries of all buckets
+     */
+    private MemoTable sparse;
+
+    /**
+     * Maps (i,j,k,0) to a bucket slot
+     */
+    private MemoTable index;
+
+    /**
+     * Per slot: the backend, the number of entries and the range of t. For dense
+     * buckets the range is that of the array, for sparse ones that of the entries.
+     * Entries of a dense bucket outside its range are counted as outliers.
+     */
+    private byte[] backend;
+    private int[] count;
+    private int[] outliers;
+    private int[] minT;
+    private int[] maxT;
+    private int[][] dense;
+    private ByteBuffer[] offHeap;
+    private int slots;
+    private boolean closed;
+
+    /**
+     * Buckets and cells per backend
+     */
+    private int[] buckets = new int[3];
+    private long[] cells = new long[3];
+
+    public AdaptiveMemo(int n) {
+        sparse = new MemoTable(n);
+        index = new MemoTable(n);
+
+        backend = new byte[64];
+        count = new int[64];
+        outliers = new int[64];
+        minT = new int[64];
+        maxT = new int[64];
+        dense = new int[64][];
+        offHeap = new ByteBuffer[64];
+    }
+
+    /**
+     * Return the value of problem (i,j,k,t) or -1 if not available.
+     */
+    public int get(int i, int j, int k, int t) {
+        int slot = index.get(i, j, k, 0);
+        if (slot < 0)
+            return -1;
+
+        if (backend[slot] == SPARSE)
+            return sparse.get(i, j, k, t);
+
+        if (t < minT[slot] || t > maxT[slot])
+            return outliers[slot] > 0 ? sparse.get(i, j, k, t) : -1;
+
+        return read(slot, backend[slot], t - minT[slot]);
+    }
+
+    /**
+     * Save the value of problem (i,j,k,t).
+     */
+    public void set(int i, int j, int k, int t, int value) {
+        int slot = index.get(i, j, k, 0);
+        if (slot < 0)
+            slot = allocate(i, j, k, t);
+
+        if (backend[slot] == SPARSE) {
+            int before = sparse.size();
+            sparse.set(i, j, k, t, value);
+
+            if (sparse.size() > before) {
+                count[slot]++;
+                minT[slot] = Math.min(minT[slot], t);
+                maxT[slot] = Math.max(maxT[slot], t);
+                cells[SPARSE]++;
+
+                int range = maxT[slot] - minT[slot] + 1;
+                if (count[slot] >= MIN_DENSE && (long) count[slot] * DENSE_FILL >= range)
+                    densify(slot, i, j, k);
+            }
+            return;
+        }
+
+        if (t < minT[slot] || t > maxT[slot]) {
+            // Too far out to keep the range filled: an outlier in the shared table
+            int range = Math.max(maxT[slot], t) - Math.min(minT[slot], t) + 1;
+            if ((long) (count[slot] + outliers[slot] + 1) * DENSE_FILL < range) {
+                int before = sparse.size();
+                sparse.set(i, j, k, t, value);
+                if (sparse.size() > before) {
+                    outliers[slot]++;
+                    cells[SPARSE]++;
+                }
+                return;
+            }
+
+            grow(slot, i, j, k, t);
+        }
+
+        int cell = t - minT[slot];
+        int to = backend[slot];
+
+        if (read(slot, to, cell) == -1)
+            count[slot]++;
+
+        write(slot, to, cell, value);
+    }
+
+    /**
+     * The number of (i,j,k) buckets held by a backend
+     */
+    public int buckets(int backend) {
+        return buckets[backend];
+    }
+
+    /**
+     * The number of (i,j,k) buckets over all backends
+     */
+    public int buckets() {
+        return slots;
+    }
+
+    /**
+     * The number of entries of the fullest bucket
+     */
+    public int maxEntries() {
+        int max = 0;
+        for (int slot = 0; slot < slots; slot++)
+            max = Math.max(max, count[slot]);
+        return max;
+    }
+
+    /**
+     * The number of entries (sparse) or allocated cells (dense, off-heap) of a backend
+     */
+    public long cells(int backend) {
+        return cells[backend];
+    }
+
+    /**
+     * The number of stored entries
+     */
+    public int size() {
+        int size = sparse.size();
+        for (int slot = 0; slot < slots; slot++)
+            if (backend[slot] != SPARSE)
+                size += count[slot];
+        return size;
+    }
+
+    /**
+     * Approximate footprint in bytes, on and off the heap.
+     */
+    public long bytes() {
+        return sparse.bytes() + index.bytes() + (long) backend.length * (1 + 4 * Integer.BYTES + 16)
+                + (cells[DENSE] + cells[OFF_HEAP]) * Integer.BYTES;
+    }
+
+    /**
+     * Free the direct buffers. The memo cannot be used afterwards, but its counts
+     * can still be read.
+     */
+    public void close() {
+        for (int slot = 0; slot < slots; slot++) {
+            if (offHeap[slot] != null)
+                OffHeapMemoTable.free(offHeap[slot]);
+            offHeap[slot] = null;
+        }
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private int allocate(int i, int j, int k, int t) {
+        if (slots == backend.length) {
+            int length = 2 * slots;
+            backend = Arrays.copyOf(backend, length);
+            count = Arrays.copyOf(count, length);
+            outliers = Arrays.copyOf(outliers, length);
+            minT = Arrays.copyOf(minT, length);
+            maxT = Arrays.copyOf(maxT, length);
+            dense = Arrays.copyOf(dense, length);
+            offHeap = Arrays.copyOf(offHeap, length);
+        }
+
+        minT[slots] = t;
+        maxT[slots] = t;
+        buckets[SPARSE]++;
+        index.set(i, j, k, 0, slots);
+
+        return slots++;
+    }
+
+    /**
+     * Move the entries of a sparse bucket to a flat range over their t.
+     * Runs O(range)
+     */
+    private void densify(int slot, int i, int j, int k) {
+        int range = maxT[slot] - minT[slot] + 1;
+        int to = range >= OFF_HEAP_CELLS ? OFF_HEAP : DENSE;
+
+        allocateRange(slot, to, range);
+
+        for (int t = minT[slot]; t <= maxT[slot]; t++) {
+            int value = sparse.remove(sparse.key(i, j, k, t));
+            if (value != -1)
+                write(slot, to, t - minT[slot], value);
+        }
+
+        backend[slot] = (byte) to;
+        buckets[SPARSE]--;
+        buckets[to]++;
+        cells[SPARSE] -= count[slot];
+        cells[to] += range;
+    }
+
+    /**
+     * Widen the range of a flat bucket to cover t, by at least half its size, and
+     * move the outliers it then covers into it. Ranges that outgrow the heap
+     * threshold move off the heap.
+     */
+    private void grow(int slot, int i, int j, int k, int t) {
+        int from = backend[slot];
+        int oldMin = minT[slot];
+        int oldRange = maxT[slot] - oldMin + 1;
+        int slack = oldRange / 2;
+
+        int newMin = t < oldMin ? Math.max(0, t - slack) : oldMin;
+        int newMax = t > maxT[slot] ? t + slack : maxT[slot];
+        int range = newMax - newMin + 1;
+        int to = range >= OFF_HEAP_CELLS ? OFF_HEAP : DENSE;
+
+        int[] oldDense = dense[slot];
+        ByteBuffer oldOffHeap = offHeap[slot];
+
+        allocateRange(slot, to, range);
+        minT[slot] = newMin;
+        maxT[slot] = newMax;
+
+        for (int x = 0; x < oldRange; x++) {
+            int value = from == DENSE ? oldDense[x] : oldOffHeap.getInt(x * Integer.BYTES);
+            if (value != -1)
+                write(slot, to, oldMin - newMin + x, value);
+        }
+
+        if (from == OFF_HEAP)
+            OffHeapMemoTable.free(oldOffHeap);
+
+        // Outliers in the new cells, outside the old range
+        for (int u = newMin; u <= newMax && outliers[slot] > 0; u++) {
+            if (u == oldMin) {
+                u += oldRange - 1;
+                continue;
+            }
+
+            int value = sparse.remove(sparse.key(i, j, k, u));
+            if (value != -1) {
+                write(slot, to, u - newMin, value);
+                outliers[slot]--;
+                count[slot]++;
+                cells[SPARSE]--;
+            }
+        }
+
+        if (from != to) {
+            backend[slot] = (byte) to;
+            buckets[from]--;
+            buckets[to]++;
+            if (from == DENSE)
+                dense[slot] = null;
+            else
+                offHeap[slot] = null;
+        }
+
+        cells[from] -= oldRange;
+        cells[to] += range;
+    }
+
+    /**
+     * Allocate a range of cells for a bucket on the given backend, all missing.
+     */
+    private void allocateRange(int slot, int to, int range) {
+        if (to == DENSE) {
+            dense[slot] = new int[range];
+            Arrays.fill(dense[slot], -1);
+        } else {
+            offHeap[slot] = ByteBuffer.allocateDirect(range * Integer.BYTES).order(ByteOrder.nativeOrder());
+            for (int x = 0; x < range; x++)
+                offHeap[slot].putInt(x * Integer.BYTES, -1);
+        }
+    }
+
+    private int read(int slot, int from, int cell) {
+        return from == DENSE ? dense[slot][cell] : offHeap[slot].getInt(cell * Integer.BYTES);
+    }
+
+    private void write(int slot, int to, int cell, int value) {
+        if (to == DENSE)
+            dense[slot][cell] = value;
+        else
+            offHeap[slot].putInt(cell * Integer.BYTES, value);
+    }
+}
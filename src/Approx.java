@@ -1,5 +1,6 @@
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.TimeoutException;
 
 public class Approx {
 
@@ -10,6 +11,23 @@ public class Approx {
 
     private float epsilon;
 
+    /**
+     * The epsilon of the first pass in anytime mode
+     */
+    public static final float COARSE_EPSILON = 8;
+
+    /**
+     * Anytime state: the best sequence so far, the epsilon of the next pass and the
+     * unfinished pass, which keeps its solved sub-problems
+     */
+    private int[] best;
+    private int bestTardiness;
+    private float nextEpsilon;
+    private DynamicSequence pending;
+    private float pendingK;
+    private int passes;
+    private boolean exact;
+
     public Approx(ProblemInstance instance, float epsilon) {
 
         this.jobs = instance.getJobs();
@@ -57,16 +75,128 @@ public class Approx {
      */
     public int calculateTardiness() throws Exception {
 
+        // Return the total tardiness of the resulting sequence
+        return computeTotalTardiness(calculateSequence());
+
+    }
+
+    /**
+     * Calculate an approximate sequence of job indices, which refer to the jobs of
+     * the instance in Earliest Due Date order.
+     */
+    public int[] calculateSequence() throws Exception {
+
         int maxTardiness = getTmax();
+        int n = jobs.length;
+
+        // EDD is optimal
+        if (maxTardiness == 0) {
+            int[] seq = new int[n];
+            for (int i = 0; i < n; i++)
+                seq[i] = i;
+            return seq;
+        }
+
+        // Run the exact algorithm on the scaled jobs
+        DynamicSequence dyn = new DynamicSequence(scale(getK(epsilon)), true);
+        return dyn.calculateSequence();
+
+    }
+
+    /**
+     * Anytime mode: return the best sequence found within the given number of
+     * milliseconds.
+     * <p>
+     * Starts from the EDD sequence and runs passes with epsilon {@link #COARSE_EPSILON},
+     * then half of that, and so on, until K drops to 1 and the pass is exact. Every pass
+     * that completes in time replaces the best sequence if its tardiness is lower.
+     * <p>
+     * Memo entries of one K are in other units than those of the next, so they cannot be
+     * shared between passes. Instead a pass cut off by the deadline keeps its memo, and
+     * the next call continues that pass rather than starting over.
+     */
+    public int[] calculateSequence(long budgetMillis) throws Exception {
+        long deadline = System.nanoTime() + budgetMillis * 1000000;
+        int n = jobs.length;
+
+        if (best == null) {
+            // EDD order
+            best = new int[n];
+            for (int i = 0; i < n; i++)
+                best[i] = i;
+            bestTardiness = computeTotalTardiness(best);
+            nextEpsilon = COARSE_EPSILON;
+            exact = getTmax() == 0;
+        }
 
-        if (maxTardiness == 0)
-            return 0;
+        while (!exact) {
+            if (pending == null) {
+                pendingK = Math.max(1, getK(nextEpsilon));
+                pending = new DynamicSequence(scale(pendingK), true);
+            }
+
+            pending.setDeadline(deadline);
+
+            int[] sequence;
+            try {
+                sequence = pending.calculateSequence();
+            } catch (TimeoutException e) {
+                break;
+            }
+
+            passes++;
+            pending = null;
+            nextEpsilon /= 2;
+            exact = pendingK == 1;
+
+            int tardiness = computeTotalTardiness(sequence);
+            if (tardiness < bestTardiness) {
+                bestTardiness = tardiness;
+                best = sequence;
+            }
+
+            if (System.nanoTime() > deadline)
+                break;
+        }
+
+        return best.clone();
+    }
+
+    /**
+     * Tardiness of the best sequence found in anytime mode
+     */
+    public int getBestTardiness() {
+        return bestTardiness;
+    }
+
+    /**
+     * The number of anytime passes completed
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Whether the anytime result is optimal
+     */
+    public boolean isExact() {
+        return exact;
+    }
 
-        // Compute K value according to Lawler (1982)
+    /**
+     * Compute K value according to Lawler (1982)
+     */
+    private float getK(float epsilon) {
+        int n = jobs.length;
+        return getTmax() * 2 * epsilon / (n * (n + 1));
+    }
+
+    /**
+     * Scale all jobs by K
+     */
+    private float[][] scale(float K) {
         int n = jobs.length;
-        float K = maxTardiness * 2 * epsilon / (n * (n + 1));
 
-        // Scale all jobs
         float[][] jobsScaled = new float[n][2];
         for (int i = 0; i < n; i++) {
             jobsScaled[i] = new float[]{
@@ -75,13 +205,7 @@ public class Approx {
             };
         }
 
-        // Run the exact algorithm on the scaled jobs
-        DynamicSequence dyn = new DynamicSequence(jobsScaled, true);
-        int[] seq = dyn.calculateSequence();
-
-        // Return the total tardiness of the resulting sequence
-        return computeTotalTardiness(seq);
-
+        return jobsScaled;
     }
 
     /**
@@ -0,0 +1,247 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Solve every instance of an answers file on a pool of workers.
+ * <p>
+ * Unlike {@link TestComputation}, a wrong answer or a hard instance does not stop the
+ * batch: every instance gets a wall-clock budget, after which {@link Dynamic} gives up
+ * on its own at its next deadline check. Results are written as CSV or JSON lines, by
+ * the extension of the output file, in the order they finish, and totals of the
+ * {@link SolverStats} are printed at the end.
+ */
+public class BatchRunner {
+
+    public static final String[] SOLVERS = {"Dynamic", "Piecewise", "Bounded", "Adaptive", "Tiered"};
+
+    /**
+     * With Tiered, every worker's memo may take this fraction of the maximum heap
+     * before spilling to segment files in the temp directory
+     */
+    private static final int TIERED_HEAP_FRACTION = 4;
+
+    public static final String OK = "ok";
+    public static final String WRONG = "wrong";
+    public static final String TIMEOUT = "timeout";
+    public static final String ERROR = "error";
+
+    /**
+     * The outcome of one instance
+     */
+    static class Result {
+        String instance;
+        int n;
+        String verdict;
+        int tardiness = -1;
+        int answer;
+        long millis;
+        int calls;
+        int hits;
+        int misses;
+        int filtered;
+        int depth;
+        int memoSize;
+        long memoBytes;
+        String message = "";
+    }
+
+    /**
+     * Solve one instance within the budget and check it against the answer.
+     *
+     * @param memoCapBytes Memory cap of the memo with the Tiered solver
+     */
+    public static Result solve(String name, Supplier<ProblemInstance> reader, int answer, String solver,
+                               long budgetMillis, long memoCapBytes) {
+        Result result = new Result();
+        result.instance = name;
+        result.answer = answer;
+
+        long t0 = System.nanoTime();
+        Dynamic dynamic = null;
+        TieredMemo tiered = null;
+
+        try {
+            if (!Arrays.asList(SOLVERS).contains(solver))
+                throw new IllegalArgumentException("Unknown solver: " + solver);
+
+            ProblemInstance instance = reader.get();
+            result.n = instance.getNumJobs();
+
+            dynamic = new Dynamic(instance, solver.equals("Piecewise") || solver.equals("Bounded"));
+            if (solver.equals("Adaptive"))
+                dynamic.enableAdaptiveMemo();
+            if (solver.equals("Tiered")) {
+                tiered = new TieredMemo(result.n, memoCapBytes,
+                        Paths.get(System.getProperty("java.io.tmpdir"), "tardiness-memo"));
+                dynamic.enableTieredMemo(tiered);
+            }
+            dynamic.setDeadline(t0 + budgetMillis * 1000000);
+
+            result.tardiness = solver.equals("Bounded") ?
+                    dynamic.calculateTardinessBounded() : dynamic.calculateTardiness();
+            result.verdict = result.tardiness == answer ? OK : WRONG;
+        } catch (TimeoutException e) {
+            result.verdict = TIMEOUT;
+        } catch (Throwable e) {
+            result.verdict = ERROR;
+            result.message = e.toString();
+        }
+
+        if (tiered != null) {
+            if (result.message.isEmpty())
+                result.message = tiered.summary();
+            try {
+                tiered.close();
+            } catch (IOException e) {
+                result.message += "; " + e;
+            }
+        }
+
+        result.millis = (System.nanoTime() - t0) / 1000000;
+
+        // Collecting metrics walks the memo, so it can fail like the solve itself
+        if (dynamic != null) {
+            try {
+                Dynamic.MetricsBag metrics = dynamic.getMetrics();
+                result.calls = metrics.calls;
+                result.hits = metrics.hits;
+                result.misses = metrics.computations;
+                result.filtered = metrics.filtered;
+                result.depth = metrics.depth;
+                result.memoSize = metrics.memoEntries;
+                result.memoBytes = metrics.memoBytes;
+
+                SolverStats.record(name, result.n, result.verdict, metrics);
+            } catch (Throwable e) {
+                result.verdict = ERROR;
+                result.message += (result.message.isEmpty() ? "" : "; ") + "metrics: " + e;
+            }
+        }
+
+        return result;
+    }
+
+    public static String header() {
+        return "instance,n,verdict,tardiness,answer,ms,calls,hits,misses,filtered,depth,memo,memoBytes,message";
+    }
+
+    public static String toCsv(Result r) {
+        return r.instance + ',' + r.n + ',' + r.verdict + ',' + r.tardiness + ',' + r.answer + ','
+                + r.millis + ',' + r.calls + ',' + r.hits + ',' + r.misses + ',' + r.filtered + ',' + r.depth + ','
+                + r.memoSize + ',' + r.memoBytes + ",\"" + r.message.replace("\"", "\"\"") + '"';
+    }
+
+    public static String toJson(Result r) {
+        return "{\"instance\":\"" + escape(r.instance) + "\",\"n\":" + r.n + ",\"verdict\":\"" + r.verdict
+                + "\",\"tardiness\":" + r.tardiness + ",\"answer\":" + r.answer + ",\"ms\":" + r.millis
+                + ",\"calls\":" + r.calls + ",\"hits\":" + r.hits + ",\"misses\":" + r.misses
+                + ",\"filtered\":" + r.filtered + ",\"depth\":" + r.depth
+                + ",\"memo\":" + r.memoSize + ",\"memoBytes\":" + r.memoBytes
+                + ",\"message\":\"" + escape(r.message) + "\"}";
+    }
+
+    private static String escape(String text) {
+        StringBuilder out = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\')
+                out.append('\\').append(c);
+            else if (c < 0x20)
+                out.append(String.format("\\u%04x", (int) c));
+            else
+                out.append(c);
+        }
+        return out.toString();
+    }
+
+    public static void main(String args[]) {
+
+        if (args.length != 6) {
+            System.out.println("Usage: path/to/answer.file path/to/instance/(dir|file.pack) solver workers budgetMillis path/to/results.(csv|jsonl)");
+            System.out.println("  where solver one of " + String.join(", ", SOLVERS));
+            return;
+        }
+
+        String answersFile = args[0];
+        String instanceRoot = args[1];
+        String solver = args[2];
+        if (!Arrays.asList(SOLVERS).contains(solver)) {
+            System.out.println("Unknown solver: " + solver + ", expected one of " + String.join(", ", SOLVERS));
+            return;
+        }
+        int workers = Integer.parseInt(args[3]);
+        long budgetMillis = Long.parseLong(args[4]);
+        String output = args[5];
+        boolean json = output.endsWith(".jsonl");
+        long memoCapBytes = Runtime.getRuntime().maxMemory() / TIERED_HEAP_FRACTION / workers;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+
+        try (PrintWriter out = new PrintWriter(new FileWriter(output))) {
+            CompletionService<Result> completion = new ExecutorCompletionService<>(pool);
+            List<String> names = new ArrayList<>();
+
+            // A .pack holds all instances in one file, read up front
+            Map<String, ProblemInstance> pack = instanceRoot.endsWith(".pack") ?
+                    InstanceFile.readPack(Paths.get(instanceRoot)) : null;
+
+            Scanner sc = new Scanner(new BufferedReader(new FileReader(answersFile)));
+            while (sc.hasNext()) {
+                String path = sc.next();
+                int ans = sc.nextInt();
+
+                names.add(path);
+                Supplier<ProblemInstance> reader = pack != null ? () -> pack.get(path) :
+                        () -> ComputeTardiness.readInstance(instanceRoot + '/' + path + ".dat");
+                completion.submit(() -> solve(path, reader, ans, solver, budgetMillis, memoCapBytes));
+            }
+            sc.close();
+
+            if (!json)
+                out.println(header());
+
+            int[] verdicts = new int[4];
+            long t0 = System.nanoTime();
+
+            for (int x = 0; x < names.size(); x++) {
+                Result result = completion.take().get();
+
+                out.println(json ? toJson(result) : toCsv(result));
+                out.flush();
+
+                switch (result.verdict) {
+                    case OK: verdicts[0]++; break;
+                    case WRONG: verdicts[1]++; break;
+                    case TIMEOUT: verdicts[2]++; break;
+                    default: verdicts[3]++;
+                }
+
+                if (!result.verdict.equals(OK))
+                    System.out.println("- " + result.instance + ": " + result.verdict + " " + result.message);
+            }
+
+            System.out.println(names.size() + " instances in " + (System.nanoTime() - t0) / 1000000 + " ms: "
+                    + verdicts[0] + " ok, " + verdicts[1] + " wrong, " + verdicts[2] + " timeout, "
+                    + verdicts[3] + " error");
+            System.out.println(SolverStats.get().summary());
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
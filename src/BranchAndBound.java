@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * Depth-first branch-and-bound search for the minimum total tardiness.
+ * <p>
+ * Schedules are built from the front. A node only keeps O(1) state per depth: the
+ * bitmask of scheduled jobs, its completion time and its tardiness. A node is pruned
+ * when its tardiness plus a lower bound on the remaining jobs cannot beat the
+ * incumbent, which starts out as the {@link Greedy} schedule. When branching, jobs
+ * that another unscheduled job must precede by Emmons' first dominance rule are
+ * skipped. For up to 63 jobs a table of the best tardiness per set of scheduled
+ * jobs, capped in size, prunes nodes that repeat a set no better than before.
+ */
+public class BranchAndBound {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 22;
+
+    private int numJobs;
+
+    /**
+     * Processing times and deadlines in increasing deadline order, and the
+     * index of every job in the original instance
+     */
+    private int[] p;
+    private int[] d;
+    private int[] original;
+
+    /**
+     * Job indices in increasing processing time order
+     */
+    private int[] spt;
+
+    /**
+     * Scheduled jobs per depth, `words` longs per mask
+     */
+    private long[][] masks;
+    private int words;
+
+    /**
+     * The jobs on the current search path and of the best schedule so far
+     */
+    private int[] path;
+    private int[] best;
+    private int bestTardiness;
+
+    /**
+     * Best tardiness seen per set of scheduled jobs, null when there are too many jobs
+     */
+    private MemoTable seen;
+    private int maxEntries;
+
+    private int[][] jobs;
+    private long nodes;
+
+    public BranchAndBound(ProblemInstance instance) {
+        this(instance, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries The maximum number of sets of scheduled jobs to remember
+     */
+    public BranchAndBound(ProblemInstance instance, int maxEntries) {
+        numJobs = instance.getNumJobs();
+        jobs = instance.getJobs();
+        this.maxEntries = maxEntries;
+
+        // Earliest Due Date order, without touching the instance
+        Integer[] order = new Integer[numJobs];
+        for (int i = 0; i < numJobs; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> jobs[a][1] - jobs[b][1]);
+
+        p = new int[numJobs];
+        d = new int[numJobs];
+        original = new int[numJobs];
+        for (int i = 0; i < numJobs; i++) {
+            original[i] = order[i];
+            p[i] = jobs[order[i]][0];
+            d[i] = jobs[order[i]][1];
+        }
+
+        Integer[] byP = new Integer[numJobs];
+        for (int i = 0; i < numJobs; i++)
+            byP[i] = i;
+        Arrays.sort(byP, (a, b) -> p[a] - p[b]);
+
+        spt = new int[numJobs];
+        for (int i = 0; i < numJobs; i++)
+            spt[i] = byP[i];
+
+        words = (numJobs + 63) >>> 6;
+        masks = new long[numJobs + 1][words];
+        path = new int[numJobs];
+    }
+
+    // returns the schedule with the minimum total tardiness
+    public Schedule getSchedule() {
+        Schedule greedy = new Greedy(new ProblemInstance(numJobs, jobs)).getSchedule();
+        if (numJobs == 0)
+            return greedy;
+
+        bestTardiness = greedy.getTardiness();
+        best = null;
+
+        seen = numJobs <= 63 ? new MemoTable(1) : null;
+        nodes = 0;
+
+        search(0, 0, 0);
+
+        if (best == null)
+            return greedy;
+
+        Schedule schedule = null;
+        for (int job : best)
+            schedule = new Schedule(schedule, original[job], p[job], d[job]);
+
+        return schedule;
+    }
+
+    /**
+     * The number of nodes visited by the last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Extend the partial schedule of the given depth, which completes at time t
+     * with the given tardiness.
+     */
+    private void search(int depth, int t, int tardiness) {
+        nodes++;
+
+        if (depth == numJobs) {
+            if (tardiness < bestTardiness) {
+                bestTardiness = tardiness;
+                best = Arrays.copyOf(path, numJobs);
+            }
+            return;
+        }
+
+        long[] mask = masks[depth];
+
+        if (tardiness + lowerBound(mask, t) >= bestTardiness)
+            return;
+
+        if (seen != null) {
+            long key = mask[0];
+            int previous = seen.get(key);
+
+            if (previous >= 0 && previous <= tardiness)
+                return;
+            if (previous >= 0 || seen.size() < maxEntries)
+                seen.put(key, tardiness);
+        }
+
+        long[] next = masks[depth + 1];
+
+        for (int j = 0; j < numJobs; j++) {
+            if (scheduled(mask, j) || dominated(mask, j, t))
+                continue;
+
+            System.arraycopy(mask, 0, next, 0, words);
+            next[j >>> 6] |= 1L << j;
+            path[depth] = j;
+
+            int done = t + p[j];
+            search(depth + 1, done, tardiness + Math.max(0, done - d[j]));
+        }
+    }
+
+    /**
+     * Lower bound on the tardiness of the unscheduled jobs when starting at time t:
+     * the k-th shortest remaining processing time finishes no earlier than the k-th
+     * completion, and is matched with the k-th earliest remaining deadline.
+     * Runs O(n)
+     */
+    private int lowerBound(long[] mask, int t) {
+        int bound = 0;
+        int completion = t;
+        int e = 0;
+
+        for (int s = 0; s < numJobs; s++) {
+            int job = spt[s];
+            if (scheduled(mask, job))
+                continue;
+
+            completion += p[job];
+
+            // The next unscheduled job in deadline order
+            while (scheduled(mask, e))
+                e++;
+
+            bound += Math.max(0, completion - d[e]);
+            e++;
+        }
+
+        return bound;
+    }
+
+    /**
+     * Whether some other unscheduled job i must precede job j when starting at time t,
+     * by Emmons: p_i &lt;= p_j and d_i &lt;= max(d_j, t + p_j). When i and j would both
+     * precede each other, the one with the lower index goes first.
+     * Runs O(n)
+     */
+    private boolean dominated(long[] mask, int j, int t) {
+        for (int i = 0; i < numJobs; i++) {
+            if (i == j || scheduled(mask, i))
+                continue;
+
+            if (p[i] <= p[j] && d[i] <= Math.max(d[j], t + p[j])) {
+                boolean mutual = p[j] <= p[i] && d[j] <= Math.max(d[i], t + p[i]);
+
+                if (!mutual || i < j)
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean scheduled(long[] mask, int job) {
+        return (mask[job >>> 6] & (1L << job)) != 0;
+    }
+}
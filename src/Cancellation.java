@@ -0,0 +1,18 @@
+/**
+ * A flag to stop a running solve from another thread.
+ * <p>
+ * Solvers check it at the same points as their deadline, so cancelling costs nothing
+ * until they get there.
+ */
+public class Cancellation {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
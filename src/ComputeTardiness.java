@@ -1,36 +1,21 @@
-import java.util.Scanner;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 
 public class ComputeTardiness {	
+	/**
+	 * Read a .dat file, or throw an UncheckedIOException naming the file and what is
+	 * wrong with it when it is missing, empty or malformed.
+	 */
 	public static ProblemInstance readInstance(String filename){
-		ProblemInstance instance = null;
-		
 		try {
-			int numJobs = 0;
-			int[][] jobs = null;
-			
-			Scanner sc = new Scanner(new BufferedReader(new FileReader(filename)));
-			if(sc.hasNextInt()){
-				numJobs = sc.nextInt();
-				jobs = new int[numJobs][2];
-				int nextJobID = 0;
-			
-				while (sc.hasNextInt() && nextJobID < numJobs) {
-					jobs[nextJobID][0] = sc.nextInt();
-					jobs[nextJobID][1] = sc.nextInt();
-					nextJobID++;
-				}
-			}
-			sc.close();
-			
-			instance = new ProblemInstance(numJobs, jobs);
-		} catch(FileNotFoundException e) {
-			e.printStackTrace();
+			return InstanceFile.readDat(Paths.get(filename));
+		} catch(NoSuchFileException e) {
+			throw new UncheckedIOException("Cannot read instance " + filename + ": file not found", e);
+		} catch(IOException e) {
+			throw new UncheckedIOException("Cannot read instance " + filename + ": " + e.getMessage(), e);
 		}
-		
-		return instance;
 	}
 
 	// reads a problem, and outputs the result of both greedy and best-first
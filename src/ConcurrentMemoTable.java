@@ -0,0 +1,71 @@
+/**
+ * Thread-safe memo for (i,j,k,t) sub-problems, striped over several {@link MemoTable}s.
+ * <p>
+ * Every stripe is guarded by its own lock, so threads working on different
+ * sub-problems rarely wait for each other.
+ */
+public class ConcurrentMemoTable {
+
+    private final MemoTable[] stripes;
+
+    private final int stripeBits;
+
+    /**
+     * Create a memo for a problem with n jobs, using at least the given number of stripes.
+     */
+    public ConcurrentMemoTable(int n, int concurrency) {
+        stripeBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, concurrency - 1));
+        stripes = new MemoTable[1 << stripeBits];
+
+        for (int x = 0; x < stripes.length; x++)
+            stripes[x] = new MemoTable(n);
+    }
+
+    /**
+     * Return the value of problem (i,j,k,t) or -1 if not available.
+     */
+    public int get(int i, int j, int k, int t) {
+        long key = stripes[0].key(i, j, k, t);
+        MemoTable stripe = stripe(key);
+
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Save the value of problem (i,j,k,t).
+     */
+    public void set(int i, int j, int k, int t, int value) {
+        long key = stripes[0].key(i, j, k, t);
+        MemoTable stripe = stripe(key);
+
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    /**
+     * The number of stored entries
+     */
+    public int size() {
+        int size = 0;
+        for (MemoTable stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Select a stripe by the high bits of a multiplicative hash, the stripes
+     * themselves probe on the low bits of a different hash.
+     */
+    private MemoTable stripe(long key) {
+        if (stripeBits == 0)
+            return stripes[0];
+
+        return stripes[(int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - stripeBits))];
+    }
+}
@@ -0,0 +1,235 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Split an instance into blocks of consecutive jobs in Earliest Due Date order that
+ * can be solved on their own, and solve the blocks in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * A block A can be scheduled before all later jobs B when every b in B either
+ * <ul>
+ *     <li>has a processing time at least the largest of A, so by Emmons' first rule
+ *     (p_a &lt;= p_b and d_a &lt;= d_b) all of A precede b in some optimal schedule, or</li>
+ *     <li>belongs to the other jobs Q of B, which all finish on time when scheduled in
+ *     EDD order right after A.</li>
+ * </ul>
+ * Take an optimal schedule that keeps all of Emmons' precedences, and move the jobs
+ * of Q that run before the last job of A to right after it, in EDD order. Jobs of A
+ * only move earlier, the moved jobs of Q are on time, and all other jobs keep their
+ * completion times, so the tardiness does not increase.
+ * <p>
+ * Blocks are found greedily from the front, each check starting at the completion
+ * time of the blocks before it. Every block is then solved by {@link Dynamic} from
+ * its start time and the tardiness of the blocks is summed.
+ */
+public class Decomposition {
+
+    /**
+     * The original problem data, in Earliest Due Date order
+     */
+    private int[][] jobs;
+
+    private ForkJoinPool pool;
+
+    /**
+     * The first job of every block, followed by the number of jobs
+     */
+    private int[] starts;
+
+    public Decomposition(ProblemInstance instance) {
+        this(instance, ForkJoinPool.commonPool());
+    }
+
+    public Decomposition(ProblemInstance instance, ForkJoinPool pool) {
+
+        jobs = instance.getJobs();
+        this.pool = pool;
+
+        Arrays.sort(jobs, (a, b) -> Integer.compare(a[1], b[1])); // O(n log n)
+
+        starts = split(jobs);
+    }
+
+    /**
+     * The block boundaries of jobs in EDD order: the first job of every block, and
+     * the number of jobs last. Runs O(n^2)
+     */
+    static int[] split(int[][] jobs) {
+        int n = jobs.length;
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+
+        int startTime = 0;
+
+        int maxP = 0;
+        int totalP = 0;
+
+        for (int m = 0; m < n - 1; m++) {
+            maxP = Math.max(maxP, jobs[m][0]);
+            totalP += jobs[m][0];
+
+            // Jobs m+1.. with a smaller p than some job of the block, in EDD order after it
+            boolean independent = true;
+            int completion = startTime + totalP;
+            for (int x = m + 1; x < n && independent; x++) {
+                if (jobs[x][0] < maxP) {
+                    completion += jobs[x][0];
+                    independent = completion <= jobs[x][1];
+                }
+            }
+
+            if (independent) {
+                starts.add(m + 1);
+                startTime += totalP;
+                maxP = 0;
+                totalP = 0;
+            }
+        }
+
+        starts.add(n);
+
+        int[] result = new int[starts.size()];
+        for (int x = 0; x < result.length; x++)
+            result[x] = starts.get(x);
+        return result;
+    }
+
+    public int getBlocks() {
+        return starts.length - 1;
+    }
+
+    public int getLargestBlock() {
+        int largest = 0;
+        for (int x = 0; x + 1 < starts.length; x++)
+            largest = Math.max(largest, starts[x + 1] - starts[x]);
+        return largest;
+    }
+
+    public int calculateTardiness() {
+        List<BlockTask> tasks = new ArrayList<>();
+
+        int startTime = 0;
+        for (int x = 0; x + 1 < starts.length; x++) {
+            BlockTask task = new BlockTask(starts[x], starts[x + 1], startTime);
+            tasks.add(task);
+            pool.execute(task);
+
+            for (int y = starts[x]; y < starts[x + 1]; y++)
+                startTime += jobs[y][0];
+        }
+
+        int tardiness = 0;
+        for (BlockTask task : tasks)
+            tardiness += task.join();
+        return tardiness;
+    }
+
+    /**
+     * Solve the jobs [from, to) starting at the given time
+     */
+    class BlockTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private int from;
+        private int to;
+        private int startTime;
+
+        BlockTask(int from, int to, int startTime) {
+            this.from = from;
+            this.to = to;
+            this.startTime = startTime;
+        }
+
+        @Override
+        protected Integer compute() {
+            // Deadlines relative to the start of the block. One that has already passed
+            // adds the same amount to every order, so it is clamped to 0 and added back.
+            int[][] block = new int[to - from][];
+            int passed = 0;
+            for (int x = from; x < to; x++) {
+                block[x - from] = new int[]{jobs[x][0], Math.max(0, jobs[x][1] - startTime)};
+                passed += Math.max(0, startTime - jobs[x][1]);
+            }
+
+            if (block.length == 1)
+                return passed + Math.max(0, block[0][0] - block[0][1]);
+
+            try {
+                return passed + new Dynamic(new ProblemInstance(block.length, block)).calculateTardiness();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    public static void main(String args[]) {
+
+        if (args.length != 2 && args.length != 3) {
+            System.out.println("Usage: path/to/answer.file path/to/instance/dir [compare]");
+            System.out.println("  where compare = 0|1 also solves every instance as a whole for the speedup");
+            return;
+        }
+
+        String answersFile = args[0];
+        String instanceRoot = args[1];
+        boolean compare = args.length == 3 && args[2].equals("1");
+
+        try {
+            Scanner sc = new Scanner(new BufferedReader(new FileReader(answersFile)));
+
+            System.out.println("instance,n,blocks,largest,ms,whole ms,speedup,tardiness,answer");
+
+            int instances = 0;
+            int split = 0;
+            long decomposedNanos = 0;
+            long wholeNanos = 0;
+
+            while (sc.hasNext()) {
+                String path = sc.next();
+                int ans = sc.nextInt();
+
+                ProblemInstance instance = ComputeTardiness.readInstance(instanceRoot + '/' + path + ".dat");
+                int[][] original = new int[instance.getNumJobs()][];
+                for (int x = 0; x < original.length; x++)
+                    original[x] = instance.getJobs()[x].clone();
+
+                long t0 = System.nanoTime();
+                Decomposition decomposition = new Decomposition(instance);
+                int result = decomposition.calculateTardiness();
+                long t1 = System.nanoTime();
+
+                long whole = 0;
+                if (compare) {
+                    new Dynamic(new ProblemInstance(original.length, original)).calculateTardiness();
+                    whole = System.nanoTime() - t1;
+                }
+
+                instances++;
+                if (decomposition.getBlocks() > 1)
+                    split++;
+                decomposedNanos += t1 - t0;
+                wholeNanos += whole;
+
+                System.out.println(String.format("%s,%d,%d,%d,%.1f,%.1f,%.2f,%d,%d", path, original.length,
+                        decomposition.getBlocks(), decomposition.getLargestBlock(), (t1 - t0) / 1e6,
+                        whole / 1e6, compare ? (double) whole / (t1 - t0) : 0, result, ans));
+
+                if (result != ans)
+                    System.out.println("- Wrong answer: " + result + " should be " + ans);
+            }
+            sc.close();
+
+            System.out.println(String.format("%d of %d instances split, %.0f ms decomposed", split, instances,
+                    decomposedNanos / 1e6) + (compare ? String.format(", %.0f ms whole, speedup %.2f",
+                    wholeNanos / 1e6, (double) wholeNanos / decomposedNanos) : ""));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Our implementation of the Minimum Tardiness algorithm by Lawler
@@ -12,6 +12,8 @@ public class Dynamic {
      */
     private int[][] jobs;
 
+    private ProblemInstance instance;
+
     /**
      * Store some performance data for evaluation
      */
@@ -22,21 +24,273 @@ public class Dynamic {
      */
     private Store store;
 
+    /**
+     * Closed-form regions of sub-problems (i,j,k), only kept in piecewise mode
+     */
+    private Regions regions;
+
+    /**
+     * The largest lower bound found for sub-problems (i,j,k,t) that could not beat
+     * their bound, only kept in bounded mode. Exact values go to the store.
+     */
+    private MemoTable bounds;
+
+    /**
+     * Sub-problems seen under a canonical job-set key, only kept when auditing keys
+     */
+    private MemoTable canonical;
+
+    /**
+     * The System.nanoTime() after which the computation is abandoned
+     */
+    private long deadline = Long.MAX_VALUE;
+
+    private Cancellation cancellation;
+
+    /**
+     * Direct memory of the off-heap memo, if enabled
+     */
+    private long offHeapBudget;
+
     public Dynamic(ProblemInstance instance) {
+        this(instance, false);
+    }
 
+    /**
+     * @param piecewise Answer sub-problems whose start time falls in their all-early
+     *                  or all-late region in closed form, without recursing or caching.
+     */
+    public Dynamic(ProblemInstance instance, boolean piecewise) {
+
+        this.instance = instance;
         jobs = instance.getJobs();
         store = new Store(jobs.length);
-        metrics = new MetricsBag();
+        metrics = new MetricsBag(jobs.length);
+
+        if (piecewise)
+            regions = new Regions(jobs.length);
 
         Arrays.sort(jobs, new SortByDeadline()); // O(n log n)
     }
 
+    /**
+     * Solve jobs that are already in deadline order, caching sub-problems in the given
+     * memo. Entries already in it are taken as solved, see {@link DynamicSession}.
+     */
+    Dynamic(int[][] sortedJobs, MemoTable memo) {
+
+        jobs = sortedJobs;
+        instance = new ProblemInstance(jobs.length, jobs);
+        store = new Store(memo);
+        metrics = new MetricsBag(jobs.length);
+    }
+
     public int calculateTardiness() throws Exception {
 
         // Create a list of all jobs
         JobList list = JobList.fromArray(jobs);
 
-        return calculateTardiness(list, 0, 0);
+        reopenMemo();
+        try {
+            return calculateTardiness(list, 0, 0);
+        } finally {
+            releaseMemo();
+        }
+    }
+
+    /**
+     * Calculate the tardiness, giving up at the given System.nanoTime() or once
+     * cancelled. Then the best heuristic schedule gives an upper bound, and
+     * {@link Heuristics#lowerBound()} a lower bound.
+     * <p>
+     * Sub-problems solved before giving up stay in the memo, so solving again with
+     * a later deadline continues where this call stopped. The deadline and
+     * cancellation only apply to this call.
+     *
+     * @param cancellation May be null
+     */
+    public SolveResult solve(long deadline, Cancellation cancellation) throws Exception {
+        long t0 = System.nanoTime();
+
+        long previousDeadline = this.deadline;
+        Cancellation previousCancellation = this.cancellation;
+        this.deadline = deadline;
+        this.cancellation = cancellation;
+
+        try {
+            int tardiness = calculateTardiness();
+            return new SolveResult(true, tardiness, tardiness, null, (System.nanoTime() - t0) / 1000000);
+        } catch (TimeoutException e) {
+            // Fall back to bounds, on the jobs as sorted by the constructor
+            Heuristics heuristics = new Heuristics(instance);
+
+            int[] best = null;
+            int upperBound = Integer.MAX_VALUE;
+            for (String name : Heuristics.NAMES) {
+                int[] sequence = heuristics.getSequence(name);
+                int tardiness = heuristics.tardiness(sequence);
+                if (tardiness < upperBound) {
+                    upperBound = tardiness;
+                    best = sequence;
+                }
+            }
+
+            int lowerBound = heuristics.lowerBound();
+            boolean exact = lowerBound == upperBound;
+
+            return new SolveResult(exact, upperBound, lowerBound, exact ? null : best,
+                    (System.nanoTime() - t0) / 1000000);
+        } finally {
+            // Later solves on this instance are not bound by this call
+            this.deadline = previousDeadline;
+            this.cancellation = previousCancellation;
+        }
+    }
+
+    /**
+     * The memo table holding all cached sub-problems
+     */
+    public MemoTable getMemo() {
+        return store.getTable();
+    }
+
+    /**
+     * Also count memo hits under canonical job-set keys: the signature of the
+     * actual set of jobs plus t. Costs an extra table the size of the memo.
+     */
+    public void enableKeyAudit() {
+        canonical = new MemoTable(jobs.length);
+    }
+
+    /**
+     * Abandon any computation still running at the given System.nanoTime(), or once
+     * its thread is interrupted or {@link #solve} is cancelled, with a TimeoutException.
+     * Checked every 1024 calls.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * The number of cached sub-problems
+     */
+    public int getMemoSize() {
+        return store.size();
+    }
+
+    /**
+     * Cache sub-problems in an {@link AdaptiveMemo}, which picks a sparse, dense or
+     * off-heap backend per (i,j,k). {@link #getMemo()} is then unavailable.
+     * <p>
+     * Like that of the off-heap memo, its direct memory is freed as soon as a
+     * calculation returns or gives up, and solving again starts from an empty memo.
+     */
+    public void enableAdaptiveMemo() {
+        store = new Store(new AdaptiveMemo(jobs.length));
+    }
+
+    /**
+     * Cache sub-problems in an {@link OffHeapMemoTable} of at most budgetBytes of
+     * direct memory. {@link #getMemo()} is then unavailable.
+     * <p>
+     * The direct memory is freed as soon as a calculation returns or gives up, so
+     * unlike the other memos, solving again starts from an empty table.
+     */
+    public void enableOffHeapMemo(long budgetBytes) {
+        offHeapBudget = budgetBytes;
+        store = new Store(new OffHeapMemoTable(jobs.length, budgetBytes));
+    }
+
+    /**
+     * Fill in the memo figures of an off-heap or adaptive memo, which cannot be read
+     * afterwards, and free its direct memory. The next calculation gets a new memo.
+     */
+    private void releaseMemo() {
+        OffHeapMemoTable offHeap = store.getOffHeap();
+        AdaptiveMemo adaptive = store.getAdaptive();
+        if ((offHeap == null && adaptive == null) || store.isClosed())
+            return;
+
+        getMetrics();
+        if (offHeap != null)
+            offHeap.close();
+        else
+            adaptive.close();
+    }
+
+    /**
+     * Replace a memo freed by an earlier calculation by an empty one.
+     */
+    private void reopenMemo() {
+        if (!store.isClosed())
+            return;
+
+        if (store.getOffHeap() != null)
+            store = new Store(new OffHeapMemoTable(jobs.length, offHeapBudget));
+        else
+            store = new Store(new AdaptiveMemo(jobs.length));
+    }
+
+    /**
+     * Cache sub-problems in a {@link TieredMemo}, which spills cold (i,j,k) buckets
+     * to disk once over its memory cap. The caller closes it after solving.
+     * {@link #getMemo()} is then unavailable.
+     */
+    public void enableTieredMemo(TieredMemo tiered) {
+        store = new Store(tiered);
+    }
+
+    /**
+     * Performance data of the last computation, with the memo figures filled in.
+     * Runs O(memo size)
+     */
+    public MetricsBag getMetrics() {
+        // Filled in before the memo was freed
+        if (store.isClosed())
+            return metrics;
+
+        AdaptiveMemo adaptive = store.getAdaptive();
+        if (adaptive != null) {
+            for (int backend = 0; backend < metrics.buckets.length; backend++)
+                metrics.buckets[backend] = adaptive.buckets(backend);
+            metrics.memoBytes = adaptive.bytes();
+            metrics.memoBuckets = adaptive.buckets();
+            metrics.maxBucketEntries = adaptive.maxEntries();
+        } else if (store.getTiered() != null) {
+            // Counting entries per bucket would read back every bucket on disk
+            metrics.buckets[AdaptiveMemo.SPARSE] = -1;
+            metrics.memoBytes = store.getTiered().bytes();
+            metrics.memoBuckets = store.getTiered().buckets();
+        } else {
+            MemoTable table = store.getTable();
+            OffHeapMemoTable offHeap = store.getOffHeap();
+
+            metrics.buckets[AdaptiveMemo.SPARSE] = -1;
+            metrics.memoBytes = offHeap != null ? offHeap.bytes() : table.bytes();
+
+            // Count the entries of every (i,j,k)
+            MemoTable perBucket = new MemoTable(jobs.length);
+            if (offHeap != null)
+                offHeap.forEach((key, value) ->
+                        countBucket(perBucket, offHeap.keyI(key), offHeap.keyJ(key), offHeap.keyK(key)));
+            else
+                table.forEach((key, value) ->
+                        countBucket(perBucket, table.keyI(key), table.keyJ(key), table.keyK(key)));
+
+            int[] max = {0};
+            perBucket.forEach((key, value) -> max[0] = Math.max(max[0], value));
+
+            metrics.memoBuckets = perBucket.size();
+            metrics.maxBucketEntries = max[0];
+        }
+        metrics.memoEntries = store.size();
+        metrics.boundEntries = bounds != null ? bounds.size() : 0;
+        return metrics;
+    }
+
+    private static void countBucket(MemoTable perBucket, int i, int j, int k) {
+        long bucket = perBucket.key(i, j, k, 0);
+        perBucket.put(bucket, Math.max(0, perBucket.get(bucket)) + 1);
     }
 
     /**
@@ -48,10 +302,14 @@ public class Dynamic {
 
         metrics.calls++;
         metrics.depth = Math.max(metrics.depth, depth);
+        metrics.callsPerDepth[depth]++;
 
         if(depth > jobs.length)
             throw new Exception("Depth cannot exceed number of jobs");
 
+        if ((metrics.calls & 1023) == 0)
+            checkDeadline();
+
         // Limit i and j to the remaining elements in the list
         int i = list.start.index;
         int j = list.end.index;
@@ -66,14 +324,32 @@ public class Dynamic {
 
         int kPrime = list.extractMaxP(); // Runs O(n)
 
+        if (regions != null) {
+            int closed = closedForm(list, i, j, kPrime, t);
+            if (closed >= 0) {
+                list.insert(kPrime);
+                return closed;
+            }
+        }
+
+        long canonicalKey = 0;
+        if (canonical != null) {
+            canonicalKey = canonicalKey(list.signature ^ list.jobs[kPrime].code, t);
+            if (canonical.get(canonicalKey) >= 0)
+                metrics.canonicalHits++;
+        }
+
         // Check whether this sub-problem has been calculated before
         int res = store.get(i, j, kPrime, t);
         if (res >= 0) {
+            metrics.hits++;
             // Restore list
             list.insert(kPrime);
             return res;
         }
 
+        metrics.computations++;
+
         // Take the largest job from the list
         // - list: no longer contains kPrime
 
@@ -112,6 +388,8 @@ public class Dynamic {
                 if (total < lowestTardiness) {
                     lowestTardiness = total;
                 }
+            } else {
+                metrics.filtered++;
             }
 
             // Move over one item from the right to the left list.
@@ -128,9 +406,209 @@ public class Dynamic {
         // Store the result for this computation, except the root (k = -1)
         store.set(i, j, kPrime, t, lowestTardiness);
 
+        if (canonical != null)
+            canonical.put(canonicalKey, 1);
+
+        return lowestTardiness;
+    }
+
+    private void checkDeadline() throws TimeoutException {
+        if (System.nanoTime() > deadline)
+            throw new TimeoutException("Deadline passed after " + metrics.calls + " calls");
+        if (Thread.currentThread().isInterrupted())
+            throw new TimeoutException("Interrupted after " + metrics.calls + " calls");
+        if (cancellation != null && cancellation.isCancelled())
+            throw new TimeoutException("Cancelled after " + metrics.calls + " calls");
+    }
+
+    /**
+     * Return the tardiness of sub-problem (i,j,k',t) if t falls in its all-early or
+     * all-late region, otherwise -1. `list` holds the sub-problem without k'.
+     */
+    private int closedForm(JobList<?> list, int i, int j, int kPrime, int t) {
+        int slot = regions.find(i, j, kPrime);
+        if (slot < 0)
+            slot = regions.compute(list, i, j, kPrime); // Runs O(n log n), once per (i,j,k)
+
+        // All jobs early when started at t: no tardiness
+        if (t <= regions.early(slot)) {
+            metrics.closedForm++;
+            return 0;
+        }
+
+        // All jobs late when started at t: linear in t
+        if (t >= regions.late(slot)) {
+            metrics.closedForm++;
+            return (list.length + 1) * t + regions.constant(slot);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Calculate the minimum tardiness, pruning with bounds.
+     * <p>
+     * The best of the {@link Heuristics} gives an upper bound. A sub-problem is then
+     * only solved exactly if it can still beat its share of that bound. Every position
+     * of k' whose cheap lower bound cannot beat the best position so far is skipped.
+     */
+    public int calculateTardinessBounded() throws Exception {
+
+        Heuristics heuristics = new Heuristics(instance);
+        int upperBound = Integer.MAX_VALUE;
+        for (String name : Heuristics.NAMES)
+            upperBound = Math.min(upperBound, heuristics.tardiness(heuristics.getSequence(name)));
+
+        if (jobs.length == 0 || upperBound == 0)
+            return upperBound;
+
+        JobList<Integer> list = JobList.fromArray(jobs);
+
+        if (bounds == null)
+            bounds = new MemoTable(jobs.length);
+
+        // Not below the bound: the heuristic schedule is optimal
+        reopenMemo();
+        try {
+            return Math.min(upperBound, calculateTardiness(list, 0, 0, upperBound));
+        } finally {
+            releaseMemo();
+        }
+    }
+
+    /**
+     * Given a list of jobs and a starting time t, calculate the minimum tardiness if
+     * it is below `bound`. Otherwise return a lower bound on it that is at least `bound`.
+     * <p>
+     * Exact values go to the memo, lower bounds to a table of their own, so the memo
+     * only ever holds exact tardiness. Call {@link #calculateTardinessBounded()}
+     * first, which creates that table.
+     */
+    public int calculateTardiness(JobList<?> list, int t, int depth, int bound) throws Exception {
+
+        metrics.calls++;
+        metrics.depth = Math.max(metrics.depth, depth);
+        metrics.callsPerDepth[depth]++;
+
+        if (depth > jobs.length)
+            throw new Exception("Depth cannot exceed number of jobs");
+
+        if ((metrics.calls & 1023) == 0)
+            checkDeadline();
+
+        // Base case: empty set
+        if (list.length == 0)
+            return 0;
+
+        // Base case: single element
+        if (list.length == 1)
+            return Math.max(0, t + jobs[list.start.index][0] - jobs[list.start.index][1]);
+
+        // The last job (with the latest deadline) finishes at t + totalP
+        int lowerBound = lowerBound(list, t);
+        if (lowerBound >= bound) {
+            metrics.skipped++;
+            return lowerBound;
+        }
+
+        int i = list.start.index;
+        int j = list.end.index;
+
+        int kPrime = list.extractMaxP(); // Runs O(n)
+
+        if (regions != null) {
+            int closed = closedForm(list, i, j, kPrime, t);
+            if (closed >= 0) {
+                list.insert(kPrime);
+                return closed;
+            }
+        }
+
+        // Check whether this sub-problem has been calculated or bounded before
+        int res = store.get(i, j, kPrime, t);
+        int known = res >= 0 ? res : bounds.get(i, j, kPrime, t);
+        if (res >= 0 || known >= bound) {
+            metrics.hits++;
+            list.insert(kPrime);
+            return known;
+        }
+
+        metrics.computations++;
+
+        // Lowest exact total, or lowest lower bound once no position can beat `bound`
+        int lowestTardiness = Integer.MAX_VALUE;
+
+        JobList<?> right = list.split(kPrime); // Runs O(n)
+        int originalLength = right.length;
+
+        for (int d = 0; d <= originalLength; d++) {
+
+            int leftComplete = t + list.totalP;
+
+            if (right.start == null || jobs[right.start.index][1] > leftComplete) {
+
+                int kPrimeDone = leftComplete + jobs[kPrime][0];
+                int tardinessKPrime = Math.max(0, kPrimeDone - jobs[kPrime][1]);
+
+                int budget = Math.min(lowestTardiness, bound);
+
+                int boundLeft = lowerBound(list, t);
+                int boundRight = lowerBound(right, kPrimeDone);
+                int total = boundLeft + tardinessKPrime + boundRight;
+
+                if (total >= budget) {
+                    metrics.skipped++;
+                } else {
+                    int tardinessLeft = list.length == 0 ? 0 :
+                            calculateTardiness(list, t, depth + 1, budget - tardinessKPrime - boundRight);
+
+                    total = tardinessLeft + tardinessKPrime + boundRight;
+
+                    if (total < budget) {
+                        int tardinessRight = right.length == 0 ? 0 :
+                                calculateTardiness(right, kPrimeDone, depth + 1, budget - tardinessLeft - tardinessKPrime);
+
+                        total = tardinessLeft + tardinessKPrime + tardinessRight;
+                    }
+                }
+
+                if (total < lowestTardiness)
+                    lowestTardiness = total;
+            } else {
+                metrics.filtered++;
+            }
+
+            if (right.length > 0)
+                list.push(right.removeFirst()); // Runs O(1)
+        }
+
+        list.insert(kPrime);
+
+        if (lowestTardiness < bound)
+            store.set(i, j, kPrime, t, lowestTardiness);
+        else if (lowestTardiness > known)
+            bounds.set(i, j, kPrime, t, lowestTardiness);
+
         return lowestTardiness;
     }
 
+    /**
+     * A lower bound on the tardiness of a list started at t: its job with the latest
+     * deadline is last, so finishes no earlier than t + totalP.
+     */
+    private int lowerBound(JobList<?> list, int t) {
+        return list.length == 0 ? 0 : Math.max(0, t + list.totalP - jobs[list.end.index][1]);
+    }
+
+    /**
+     * Combine a job-set signature and a start time into a non-negative key.
+     */
+    private static long canonicalKey(long signature, int t) {
+        long key = signature + 0x9E3779B97F4A7C15L * (t + 1);
+        key ^= key >>> 31;
+        return key & Long.MAX_VALUE;
+    }
+
     /**
      * Sort the 2D jobs array by deadline (2nd element of each pair)
      */
@@ -141,49 +619,279 @@ public class Dynamic {
     }
 
     /**
-     * Caching of computations is done using a 3 dimensional array
-     * of HashMaps. The dimensions are `i`, `j` and `k` which range
-     * from 0 to n (number of jobs). The time `t` can range from
-     * 0 to n * pMax (the largest processing time).
+     * Caching of computations is done using a primitive hash table
+     * keyed by (i,j,k,t). The indices `i`, `j` and `k` range from
+     * 0 to n (number of jobs). The time `t` can range from 0 to
+     * n * pMax (the largest processing time).
+     * <p>
+     * With small processing times the t of one (i,j,k) are dense, so the
+     * store can instead be backed by an {@link AdaptiveMemo}. For memos larger
+     * than the heap should hold, an {@link OffHeapMemoTable} keeps them in
+     * direct memory, and a {@link TieredMemo} moves cold buckets to disk.
      */
     class Store {
 
-        private HashMap<Integer, Integer>[][][] store;
+        private MemoTable table;
+        private AdaptiveMemo adaptive;
+        private OffHeapMemoTable offHeap;
+        private TieredMemo tiered;
 
         public Store(int size) {
-            store = new HashMap[size][size][size];
+            table = new MemoTable(size);
+        }
+
+        public Store(MemoTable table) {
+            this.table = table;
+        }
+
+        public Store(AdaptiveMemo adaptive) {
+            this.adaptive = adaptive;
+        }
+
+        public Store(OffHeapMemoTable offHeap) {
+            this.offHeap = offHeap;
+        }
+
+        public Store(TieredMemo tiered) {
+            this.tiered = tiered;
         }
 
         /**
          * Save the solution to a problem (i,j,k,t) in the store.
          */
         public void set(int i, int j, int k, int t, int tardiness) {
-            if (store[i][j][k] == null)
-                store[i][j][k] = new HashMap<Integer, Integer>();
-
-            store[i][j][k].put(t, tardiness);
+            if (adaptive != null)
+                adaptive.set(i, j, k, t, tardiness);
+            else if (tiered != null)
+                tiered.set(i, j, k, t, tardiness);
+            else if (offHeap != null)
+                offHeap.set(i, j, k, t, tardiness);
+            else
+                table.set(i, j, k, t, tardiness);
         }
 
         /**
          * Return the tardiness of problem (i,j,k,t) or -1 if not available.
          */
         public int get(int i, int j, int k, int t) {
-            if (store[i][j][k] == null)
-                return -1;
+            if (adaptive != null)
+                return adaptive.get(i, j, k, t);
+            if (tiered != null)
+                return tiered.get(i, j, k, t);
+            return offHeap != null ? offHeap.get(i, j, k, t) : table.get(i, j, k, t);
+        }
+
+        /**
+         * The number of cached sub-problems
+         */
+        public int size() {
+            if (adaptive != null)
+                return adaptive.size();
+            if (tiered != null)
+                return (int) tiered.size();
+            return offHeap != null ? offHeap.size() : table.size();
+        }
+
+        /**
+         * Whether the direct memory of the memo has been freed
+         */
+        public boolean isClosed() {
+            return offHeap != null ? offHeap.isClosed() : adaptive != null && adaptive.isClosed();
+        }
+
+        public MemoTable getTable() {
+            return table;
+        }
+
+        public AdaptiveMemo getAdaptive() {
+            return adaptive;
+        }
+
+        public OffHeapMemoTable getOffHeap() {
+            return offHeap;
+        }
 
-            Integer result = store[i][j][k].get(t);
-            return result == null ? -1 : result;
+        public TieredMemo getTiered() {
+            return tiered;
         }
 
     }
 
+    /**
+     * The optimal tardiness of a job set S as a function of its start time t is
+     * zero up to the all-early bound and linear from the all-late bound on:
+     * <ul>
+     *     <li>EDD (index order) has no tardy job iff t &lt;= min(d_x - C_x), with
+     *     C_x the completion time of x in EDD order when starting at 0.</li>
+     *     <li>Every job is tardy in every order iff t &gt;= max(d_x - p_x). Then the
+     *     tardiness is |S| t + sum(C_x) - sum(d_x), minimized by SPT order.</li>
+     * </ul>
+     * These bounds and the constant are stored for every visited (i,j,k).
+     */
+    class Regions {
+
+        /**
+         * Maps (i,j,k,0) to a slot in `data`
+         */
+        private MemoTable index;
+
+        /**
+         * Per slot: the all-early bound, the all-late bound and the SPT constant
+         */
+        private int[] data;
+        private int size;
+
+        public Regions(int size) {
+            index = new MemoTable(size);
+            data = new int[3 * 1024];
+        }
+
+        /**
+         * Return the slot of sub-problem (i,j,k) or -1 if not computed yet.
+         */
+        public int find(int i, int j, int k) {
+            return index.get(i, j, k, 0);
+        }
+
+        /**
+         * Compute the regions of sub-problem (i,j,k): the jobs in `list` together with job k.
+         */
+        public int compute(JobList<?> list, int i, int j, int k) {
+            int[] p = new int[list.length + 1];
+            int count = 0;
+
+            int completion = 0;
+            int early = Integer.MAX_VALUE;
+            int late = Integer.MIN_VALUE;
+            int sumD = 0;
+
+            JobList.JobNode<?> node = list.start;
+            boolean kDone = false;
+
+            // Walk all jobs in index (EDD) order, merging k in at its place
+            while (node != null || !kDone) {
+                int x;
+                if (!kDone && (node == null || k < node.index)) {
+                    x = k;
+                    kDone = true;
+                } else {
+                    x = node.index;
+                    node = node.next;
+                }
+
+                completion += jobs[x][0];
+                early = Math.min(early, jobs[x][1] - completion);
+                late = Math.max(late, jobs[x][1] - jobs[x][0]);
+                sumD += jobs[x][1];
+                p[count++] = jobs[x][0];
+            }
+
+            // Sum of completion times in SPT order
+            Arrays.sort(p);
+            int sumC = 0;
+            completion = 0;
+            for (int x = 0; x < count; x++) {
+                completion += p[x];
+                sumC += completion;
+            }
+
+            if (3 * size + 3 > data.length)
+                data = Arrays.copyOf(data, 2 * data.length);
+
+            data[3 * size] = early;
+            data[3 * size + 1] = late;
+            data[3 * size + 2] = sumC - sumD;
+
+            index.set(i, j, k, 0, size);
+
+            return size++;
+        }
+
+        public int early(int slot) {
+            return data[3 * slot];
+        }
+
+        public int late(int slot) {
+            return data[3 * slot + 1];
+        }
+
+        public int constant(int slot) {
+            return data[3 * slot + 2];
+        }
+
+        /**
+         * The number of sub-problems (i,j,k) with known regions
+         */
+        public int size() {
+            return size;
+        }
+    }
+
     /**
      * Keep some metrics for performance tracking
      */
     class MetricsBag {
         public int depth;
         public int calls;
+
+        /**
+         * Sub-problems solved by recursing, that is memo misses
+         */
         public int computations;
+
+        /**
+         * Calls at every recursion depth
+         */
+        public int[] callsPerDepth;
+
+        /**
+         * Sub-problems answered in closed form (piecewise mode only)
+         */
+        public int closedForm;
+
+        /**
+         * Positions of k' skipped by the due-date filter: the first job on the right
+         * is due before the left side completes
+         */
+        public int filtered;
+
+        /**
+         * Memo hits under (i,j,k,t) keys and, when auditing keys, under job-set keys
+         */
+        public int hits;
+        public int canonicalHits;
+
+        /**
+         * Sub-problems and positions of k' skipped by bounds (bounded mode only)
+         */
+        public int skipped;
+
+        /**
+         * Buckets (i,j,k) per backend of the adaptive memo, indexed as
+         * {@link AdaptiveMemo#BACKENDS}, or -1 for sparse when the memo is a plain
+         * {@link MemoTable}. Filled in by {@link Dynamic#getMetrics()}.
+         */
+        public int[] buckets = new int[AdaptiveMemo.BACKENDS.length];
+        public long memoBytes;
+
+        /**
+         * Memo entries, the (i,j,k) buckets they fall in and the entries of the fullest
+         * bucket. Filled in by {@link Dynamic#getMetrics()}.
+         */
+        public int memoEntries;
+        public int memoBuckets;
+        public int maxBucketEntries;
+
+        /**
+         * Lower bounds kept for sub-problems that could not beat their bound (bounded
+         * mode only). Filled in by {@link Dynamic#getMetrics()}.
+         */
+        public int boundEntries;
+
+        public MetricsBag(int n) {
+            // The depth check allows one level past n before throwing
+            callsPerDepth = new int[n + 2];
+        }
     }
 
 
@@ -1,6 +1,6 @@
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Our implementation of the Minimum Tardiness algorithm by Lawler
@@ -20,10 +20,15 @@ public class DynamicSequence {
     private boolean maintainSequence;
 
     /**
-     * Store all calculated results for sub-problems (i,j,k,t)
+     * Store all calculated results for sub-problems (i,j,k,t): the tardiness and the
+     * number of positions k' was moved to the right
      */
-    private Store<Float> store;
-    private Store<Integer> indexStore;
+    private Store store;
+
+    /**
+     * The System.nanoTime() after which the computation is abandoned
+     */
+    private long deadline = Long.MAX_VALUE;
 
 
     public DynamicSequence(float[][] jobs) {
@@ -33,10 +38,7 @@ public class DynamicSequence {
     public DynamicSequence(float[][] jobs, boolean maintainSequence) {
 
         this.jobs = jobs;
-        store = new Store(jobs.length, (float) -1);
-
-        if(maintainSequence)
-            indexStore = new Store(jobs.length, -1);
+        store = new Store(jobs.length);
 
         metrics = new MetricsBag();
 
@@ -45,6 +47,15 @@ public class DynamicSequence {
         Arrays.sort(jobs, new SortByDeadline()); // O(n log n)
     }
 
+    /**
+     * Abandon any computation still running at the given System.nanoTime() with a
+     * TimeoutException. Sub-problems solved so far stay in the store, so a later call
+     * continues where this one stopped.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
     /** Calculate the total Tardiness of this problem instance */
     public float calculateTardiness() throws Exception {
 
@@ -110,7 +121,7 @@ public class DynamicSequence {
         int k = list.extractMaxP();
 
         // Fetch the optimal position for k given this list
-        int deltaOfK = indexStore.get(i, j, k, t);
+        int deltaOfK = store.getDelta(i, j, k, t);
 
         // Split the list at k
         JobList right = list.split(k + 1);
@@ -152,6 +163,9 @@ public class DynamicSequence {
         if (depth > jobs.length)
             throw new Exception("Depth cannot exceed number of jobs");
 
+        if ((metrics.calls & 1023) == 0 && System.nanoTime() > deadline)
+            throw new TimeoutException("Deadline passed after " + metrics.calls + " calls");
+
         // Limit i and j to the remaining elements in the list
         int i = list.start.index;
         int j = list.end.index;
@@ -167,7 +181,7 @@ public class DynamicSequence {
         int kPrime = list.extractMaxP(); // Runs O(n)
 
         // Check whether this sub-problem has been calculated before
-        float res = store.get(i, j, kPrime, t);
+        float res = store.getTardiness(i, j, kPrime, t);
         if (res >= 0) {
             // Restore list
             list.insert(kPrime);
@@ -225,12 +239,9 @@ public class DynamicSequence {
         // Re-insert node kPrime to restore the list
         list.insert(kPrime); // Runs O(n), can improve by remembering beforeK node?
 
-        // Store the result for this computation, except the root (k = -1)
-        store.set(i, j, kPrime, t, lowestTardiness);
-
-        // We store the number of elements k' was moved to the right.
-        if(maintainSequence)
-            indexStore.set(i, j, kPrime, t, bestD);
+        // Store the result for this computation, with the number of elements
+        // k' was moved to the right.
+        store.set(i, j, kPrime, t, lowestTardiness, bestD);
 
         return lowestTardiness;
     }
@@ -243,41 +254,45 @@ public class DynamicSequence {
     }
 
     /**
-     * Caching of computations is done using a 3 dimensional array
-     * of HashMaps. The dimensions are `i`, `j` and `k` which range
-     * from 0 to n (number of jobs). The time `t` can range from
-     * 0 to n * pMax (the largest processing time).
-     *
-     * @param <T> The type of value to be stored.
+     * Caching of computations is done using a primitive hash table
+     * keyed by (i,j,k,t). The indices `i`, `j` and `k` range from
+     * 0 to n (number of jobs). The time `t` can range from 0 to
+     * n * pMax (the largest processing time).
+     * <p>
+     * The tardiness and the delta of k' share one long entry: the float
+     * bits of the tardiness, which are non-negative for all non-negative
+     * floats, in the high half and the delta in the low half. Sequence
+     * mode then costs no more than tardiness-only mode.
      */
-    class Store<T> {
+    class Store {
 
-        private HashMap<Integer, T>[][][] store;
-        T onEmpty;
+        private LongMemoTable table;
 
-        public Store(int size, T onEmpty) {
-            store = new HashMap[size][size][size];
-            this.onEmpty = onEmpty;
+        public Store(int size) {
+            table = new LongMemoTable(size);
         }
 
         /**
-         * Save the solution to a problem (i,j,k,t) in the store.
+         * Save the tardiness and delta of k' of a problem (i,j,k,t) in the store.
          */
-        public void set(int i, int j, int k, int t, T result) {
-            if (store[i][j][k] == null)
-                store[i][j][k] = new HashMap<>();
-
-            store[i][j][k].put(t, result);
+        public void set(int i, int j, int k, int t, float tardiness, int delta) {
+            table.set(i, j, k, t, (long) Float.floatToIntBits(tardiness) << 32 | delta);
         }
 
         /**
          * Return the tardiness of problem (i,j,k,t) or -1 if not available.
          */
-        public T get(int i, int j, int k, int t) {
-            if (store[i][j][k] == null)
-                return onEmpty;
-            T result = store[i][j][k].get(t);
-            return result == null ? onEmpty : result;
+        public float getTardiness(int i, int j, int k, int t) {
+            long entry = table.get(i, j, k, t);
+            return entry < 0 ? -1 : Float.intBitsToFloat((int) (entry >>> 32));
+        }
+
+        /**
+         * Return the delta of k' of problem (i,j,k,t) or -1 if not available.
+         */
+        public int getDelta(int i, int j, int k, int t) {
+            long entry = table.get(i, j, k, t);
+            return entry < 0 ? -1 : (int) entry;
         }
 
     }
@@ -0,0 +1,192 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A long-lived {@link Dynamic} solver for a job set that changes between solves.
+ * <p>
+ * The memo survives {@link #addJob} and {@link #removeJob}. A cached sub-problem
+ * (i,j,k,t) stands for the jobs x from i to j in deadline order that come at or after
+ * k in extractMaxP order: a smaller processing time, or an equal one and a higher
+ * index. A change to job q only affects the entries whose set contains q; all other
+ * entries are kept, with their indices moved to the new deadline order.
+ * <p>
+ * Every change rebuilds the memo in O(memo size), which is far less than solving
+ * the sub-problems again.
+ */
+public class DynamicSession {
+
+    /**
+     * The current jobs, in deadline order
+     */
+    private List<int[]> jobs = new ArrayList<>();
+
+    private MemoTable memo;
+
+    /**
+     * Memo entries kept and dropped by the last change
+     */
+    private int kept;
+    private int dropped;
+
+    /**
+     * Metrics of the last {@link #resolve}
+     */
+    private Dynamic last;
+
+    public DynamicSession(ProblemInstance instance) {
+        for (int[] job : instance.getJobs())
+            jobs.add(insertionPoint(job[1]), job.clone());
+
+        memo = new MemoTable(jobs.size());
+    }
+
+    /**
+     * Add a job, after any jobs with the same deadline.
+     */
+    public void addJob(int p, int d) {
+        int q = insertionPoint(d);
+        jobs.add(q, new int[]{p, d});
+
+        int[][] sorted = toArray();
+        remap(jobs.size(), old -> old < q ? old : old + 1,
+                (i, j, k) -> i < q && q < j && precedes(sorted, k, q), true);
+    }
+
+    /**
+     * Remove one job with the given processing time and deadline.
+     *
+     * @return Whether such a job was found
+     */
+    public boolean removeJob(int p, int d) {
+        int q = -1;
+        for (int x = 0; x < jobs.size() && q < 0; x++)
+            if (jobs.get(x)[0] == p && jobs.get(x)[1] == d)
+                q = x;
+
+        if (q < 0)
+            return false;
+
+        int[][] sorted = toArray();
+        int removed = q;
+        remap(jobs.size() - 1, old -> old > removed ? old - 1 : old,
+                (i, j, k) -> i <= removed && removed <= j && (removed == k || precedes(sorted, k, removed)),
+                false);
+
+        jobs.remove(q);
+        return true;
+    }
+
+    /**
+     * The minimum total tardiness of the current jobs, reusing every memo entry
+     * that survived the changes since the last call.
+     */
+    public int resolve() throws Exception {
+        if (jobs.isEmpty())
+            return 0;
+
+        last = new Dynamic(toArray(), memo);
+        return last.calculateTardiness();
+    }
+
+    public int getNumJobs() {
+        return jobs.size();
+    }
+
+    public int getMemoSize() {
+        return memo.size();
+    }
+
+    public int getKept() {
+        return kept;
+    }
+
+    public int getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Performance data of the last {@link #resolve}. Runs O(memo size)
+     */
+    public Dynamic.MetricsBag getMetrics() {
+        return last == null ? null : last.getMetrics();
+    }
+
+    /**
+     * Whether job x comes before job y in extractMaxP order: a larger processing
+     * time, or an equal one and a lower index.
+     */
+    private static boolean precedes(int[][] sorted, int x, int y) {
+        return sorted[x][0] > sorted[y][0] || (sorted[x][0] == sorted[y][0] && x < y);
+    }
+
+    /**
+     * The index after all jobs with a deadline up to d
+     */
+    private int insertionPoint(int d) {
+        int low = 0;
+        int high = jobs.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (jobs.get(mid)[1] <= d)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private int[][] toArray() {
+        return jobs.toArray(new int[0][]);
+    }
+
+    /**
+     * Copy the memo entries that are not affected into a table for the new job count,
+     * with their indices mapped to the new deadline order.
+     *
+     * @param n The new number of jobs
+     * @param onNewIndices Whether affected is tested on the new indices, as when adding
+     *                     a job, or on the old, as when removing one
+     */
+    private void remap(int n, IndexMap map, Affected affected, boolean onNewIndices) {
+        MemoTable old = memo;
+        MemoTable next = new MemoTable(Math.max(1, n), old.size() + old.size() / 2);
+
+        int[] counts = new int[2];
+
+        old.forEach((key, value) -> {
+            int i = old.keyI(key);
+            int j = old.keyJ(key);
+            int k = old.keyK(key);
+            int t = old.keyT(key);
+
+            int newI = map.apply(i);
+            int newJ = map.apply(j);
+            int newK = map.apply(k);
+
+            boolean drop = onNewIndices ? affected.test(newI, newJ, newK) : affected.test(i, j, k);
+
+            if (!drop) {
+                try {
+                    next.set(newI, newJ, newK, t, value);
+                } catch (IllegalArgumentException e) {
+                    // t no longer fits a key for the new job count
+                    drop = true;
+                }
+            }
+
+            counts[drop ? 1 : 0]++;
+        });
+
+        memo = next;
+        kept = counts[0];
+        dropped = counts[1];
+    }
+
+    interface IndexMap {
+        int apply(int index);
+    }
+
+    interface Affected {
+        boolean test(int i, int j, int k);
+    }
+}
@@ -0,0 +1,320 @@
+import java.util.Arrays;
+
+/**
+ * Fast upper bounds: priority rules that run in O(n log n) on flat arrays, and
+ * a matching lower bound.
+ * <p>
+ * Every heuristic returns a sequence of job indices of the original instance,
+ * which is not modified. Use {@link #tardiness(int[])} to score a sequence.
+ */
+public class Heuristics {
+
+    /**
+     * The heuristics by name, as accepted by {@link #getSequence(String)}
+     */
+    public static final String[] NAMES = {"EDD", "SPT", "MDD", "WI", "EDD-SWAP"};
+
+    /**
+     * The number of positions {@link #eddAdjacentSwap()} may move a job back
+     */
+    public static final int BACKTRACK_LIMIT = 32;
+
+    private int numJobs;
+
+    /**
+     * Processing times and deadlines by original job index
+     */
+    private int[] p;
+    private int[] d;
+
+    public Heuristics(ProblemInstance instance) {
+        numJobs = instance.getNumJobs();
+        int[][] jobs = instance.getJobs();
+
+        p = new int[numJobs];
+        d = new int[numJobs];
+        for (int i = 0; i < numJobs; i++) {
+            p[i] = jobs[i][0];
+            d[i] = jobs[i][1];
+        }
+    }
+
+    /**
+     * Return the sequence of a heuristic by its name (see {@link #NAMES}).
+     */
+    public int[] getSequence(String name) {
+        switch (name.toUpperCase()) {
+            case "EDD":
+                return edd();
+            case "SPT":
+                return spt();
+            case "MDD":
+                return mdd();
+            case "WI":
+                return wilkersonIrwin();
+            case "EDD-SWAP":
+                return eddAdjacentSwap();
+            default:
+                throw new IllegalArgumentException("Unknown heuristic: " + name);
+        }
+    }
+
+    /**
+     * Earliest Due Date order. Runs O(n log n)
+     */
+    public int[] edd() {
+        return sortBy(d);
+    }
+
+    /**
+     * Shortest Processing Time order. Runs O(n log n)
+     */
+    public int[] spt() {
+        return sortBy(p);
+    }
+
+    /**
+     * Modified Due Date: repeatedly schedule the job with the smallest max(d_j, t + p_j).
+     * <p>
+     * Jobs with d_j - p_j &lt;= t have priority t + p_j, the others d_j. Since t only
+     * grows, jobs move from the second group to the first exactly once, so two heaps
+     * (on p and on d) find the next job. Runs O(n log n)
+     */
+    public int[] mdd() {
+        int[] sequence = new int[numJobs];
+
+        // Jobs in order of their slack d_j - p_j, at which they join the first group
+        long[] bySlack = new long[numJobs];
+        for (int i = 0; i < numJobs; i++)
+            bySlack[i] = pack(d[i] - p[i], i);
+        Arrays.sort(bySlack);
+
+        LongHeap late = new LongHeap(numJobs);   // keyed by p
+        LongHeap early = new LongHeap(numJobs);  // keyed by d
+        for (int i = 0; i < numJobs; i++)
+            early.push(pack(d[i], i));
+
+        boolean[] isLate = new boolean[numJobs];
+        boolean[] done = new boolean[numJobs];
+
+        int t = 0;
+        int q = 0;
+
+        for (int x = 0; x < numJobs; x++) {
+            while (q < numJobs && (int) (bySlack[q] >> 32) <= t) {
+                int job = (int) bySlack[q++];
+                if (done[job])
+                    continue;
+
+                isLate[job] = true;
+                late.push(pack(p[job], job));
+            }
+
+            // Drop jobs that moved to the first group or were scheduled
+            while (!early.isEmpty() && (isLate[(int) early.peek()] || done[(int) early.peek()]))
+                early.pop();
+
+            int job;
+            if (early.isEmpty()
+                    || (!late.isEmpty() && t + p[(int) late.peek()] <= d[(int) early.peek()]))
+                job = (int) late.pop();
+            else
+                job = (int) early.pop();
+
+            done[job] = true;
+            sequence[x] = job;
+            t += p[job];
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Wilkerson-Irwin: keep the earliest deadline job alpha as the pivot and compare
+     * it with the next earliest deadline job beta. If p_alpha &lt;= p_beta, or
+     * t + max(p_alpha, p_beta) &gt;= max(d_alpha, d_beta), the pair goes in SPT order,
+     * otherwise in EDD order. When beta goes first alpha stays the pivot for the next
+     * job. A heap on d finds beta, so this runs O(n log n)
+     */
+    public int[] wilkersonIrwin() {
+        int[] sequence = new int[numJobs];
+
+        LongHeap byDeadline = new LongHeap(numJobs);
+        for (int i = 0; i < numJobs; i++)
+            byDeadline.push(pack(d[i], i));
+
+        int t = 0;
+        int alpha = -1;
+
+        for (int x = 0; x < numJobs; x++) {
+            if (alpha < 0)
+                alpha = (int) byDeadline.pop();
+
+            int job = alpha;
+            if (!byDeadline.isEmpty()) {
+                int beta = (int) byDeadline.peek();
+
+                // Both late whatever the order: the shorter one goes first
+                if (p[alpha] > p[beta] && t + p[alpha] >= Math.max(d[alpha], d[beta]))
+                    job = (int) byDeadline.pop();
+            }
+
+            if (job == alpha)
+                alpha = -1;
+
+            sequence[x] = job;
+            t += p[job];
+        }
+
+        return sequence;
+    }
+
+    /**
+     * EDD with adjacent swaps: take jobs in EDD order and move every new job back
+     * past its predecessors while the adjacent pairwise interchange lowers their
+     * tardiness. Backtracking is limited to {@link #BACKTRACK_LIMIT} positions per
+     * job, which keeps this O(n log n).
+     */
+    public int[] eddAdjacentSwap() {
+        int[] sequence = edd();
+
+        // start[x]: the start time of the job at position x
+        int[] start = new int[numJobs + 1];
+
+        for (int x = 0; x < numJobs; x++) {
+            start[x + 1] = start[x] + p[sequence[x]];
+
+            int y = x;
+            while (y > 0 && x - y < BACKTRACK_LIMIT) {
+                int a = sequence[y - 1];
+                int b = sequence[y];
+                int s = start[y - 1];
+
+                int keep = Math.max(0, s + p[a] - d[a]) + Math.max(0, s + p[a] + p[b] - d[b]);
+                int swap = Math.max(0, s + p[b] - d[b]) + Math.max(0, s + p[b] + p[a] - d[a]);
+
+                if (swap >= keep)
+                    break;
+
+                sequence[y - 1] = b;
+                sequence[y] = a;
+                start[y] = s + p[b];
+                y--;
+            }
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Compute the total tardiness of a sequence of job indices. Runs O(n)
+     */
+    public int tardiness(int[] sequence) {
+        int completionTime = 0;
+        int totalTardiness = 0;
+
+        for (int job : sequence) {
+            completionTime += p[job];
+            totalTardiness += Math.max(0, completionTime - d[job]);
+        }
+
+        return totalTardiness;
+    }
+
+    /**
+     * Lower bound on the total tardiness of any sequence: the k-th shortest processing
+     * time finishes no earlier than the k-th completion in SPT order, and is matched
+     * with the k-th earliest deadline. Runs O(n log n)
+     */
+    public int lowerBound() {
+        int[] byP = spt();
+        int[] byD = edd();
+
+        int bound = 0;
+        int completion = 0;
+        for (int k = 0; k < numJobs; k++) {
+            completion += p[byP[k]];
+            bound += Math.max(0, completion - d[byD[k]]);
+        }
+
+        return bound;
+    }
+
+    /**
+     * Job indices in increasing order of a key, ties by index.
+     */
+    private int[] sortBy(int[] key) {
+        long[] packed = new long[numJobs];
+        for (int i = 0; i < numJobs; i++)
+            packed[i] = pack(key[i], i);
+
+        Arrays.sort(packed);
+
+        int[] sequence = new int[numJobs];
+        for (int i = 0; i < numJobs; i++)
+            sequence[i] = (int) packed[i];
+
+        return sequence;
+    }
+
+    /**
+     * A sort key in the high half and a job index in the low half of a long
+     */
+    private static long pack(int key, int job) {
+        return ((long) key << 32) | job;
+    }
+
+    /**
+     * Binary min-heap of longs
+     */
+    static class LongHeap {
+
+        private long[] heap;
+        private int size;
+
+        LongHeap(int capacity) {
+            heap = new long[Math.max(1, capacity)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        void push(long value) {
+            int x = size++;
+            while (x > 0) {
+                int parent = (x - 1) >>> 1;
+                if (heap[parent] <= value)
+                    break;
+                heap[x] = heap[parent];
+                x = parent;
+            }
+            heap[x] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long value = heap[--size];
+
+            int x = 0;
+            while (true) {
+                int child = 2 * x + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && heap[child + 1] < heap[child])
+                    child++;
+                if (heap[child] >= value)
+                    break;
+                heap[x] = heap[child];
+                x = child;
+            }
+            heap[x] = value;
+
+            return top;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Lawler's Minimum Tardiness algorithm on implicit sub-problems.
+ * <p>
+ * A sub-problem is the set of jobs with an index in [i..j] and a rank below r (see
+ * {@link RankTables}), so the recursion only passes integers around. Finding k',
+ * the total processing time of either side and the first job of the right side
+ * are table lookups, which removes the O(n) list walks of {@link Dynamic} and
+ * allocates nothing while recursing.
+ */
+public class ImplicitDynamic {
+
+    /**
+     * The original problem data
+     */
+    private int[][] jobs;
+
+    private RankTables tables;
+
+    /**
+     * Store some performance data for evaluation
+     */
+    private MetricsBag metrics;
+
+    /**
+     * Store all calculated results for sub-problems (i,j,k,t)
+     */
+    private MemoTable store;
+
+    public ImplicitDynamic(ProblemInstance instance) {
+
+        jobs = instance.getJobs();
+        metrics = new MetricsBag();
+
+        Arrays.sort(jobs, new SortByDeadline()); // O(n log n)
+
+        tables = new RankTables(jobs); // O(n^2 log n)
+        store = new MemoTable(jobs.length);
+    }
+
+    public int calculateTardiness() {
+        int n = jobs.length;
+
+        if (n == 0)
+            return 0;
+
+        return calculateTardiness(0, n - 1, n, 0, 0);
+    }
+
+    /**
+     * Calculate the minimum tardiness of all jobs with an index in [a..b] and
+     * a rank below r, starting at time t.
+     * <p>
+     * Note: depth is only passed for performance analysis.
+     */
+    private int calculateTardiness(int a, int b, int r, int t, int depth) {
+
+        metrics.calls++;
+        metrics.depth = Math.max(metrics.depth, depth);
+
+        // Limit i and j to the jobs actually in the set
+        int i = tables.first(a, r);
+
+        // Base case: empty set
+        if (i > b)
+            return 0;
+
+        int j = tables.last(b, r);
+
+        // Base case: single element
+        if (i == j)
+            return Math.max(0, t + tables.p[i] - tables.d[i]);
+
+        int kPrime = tables.maxP(i, j, r);
+        int kRank = tables.rank[kPrime];
+
+        // Check whether this sub-problem has been calculated before
+        int res = store.get(i, j, kPrime, t);
+        if (res >= 0)
+            return res;
+
+        metrics.computations++;
+
+        int lowestTardiness = Integer.MAX_VALUE;
+
+        // All jobs in [i..j] with a rank below k' form the set without k'. The left
+        // side holds those before `split`, the right side those from `split` on.
+        int split = kPrime;
+
+        while (true) {
+
+            // The time until the left hand side is complete.
+            int leftComplete = t + tables.totalP(i, split, kRank);
+
+            int rightStart = tables.first(split, kRank);
+            boolean rightEmpty = rightStart > j;
+
+            // Only compute when d_x > leftComplete, for x the first element on the right
+            if (rightEmpty || tables.d[rightStart] > leftComplete) {
+
+                int tardinessLeft = calculateTardiness(i, split - 1, kRank, t, depth + 1);
+
+                int kPrimeDone = leftComplete + tables.p[kPrime];
+                int tardinessKPrime = Math.max(0, kPrimeDone - tables.d[kPrime]);
+
+                int tardinessRight = rightEmpty ? 0 :
+                        calculateTardiness(rightStart, j, kRank, kPrimeDone, depth + 1);
+
+                int total = tardinessLeft + tardinessKPrime + tardinessRight;
+
+                if (total < lowestTardiness)
+                    lowestTardiness = total;
+            }
+
+            if (rightEmpty)
+                break;
+
+            // Move over one job from the right to the left side.
+            split = rightStart + 1;
+        }
+
+        store.set(i, j, kPrime, t, lowestTardiness);
+
+        return lowestTardiness;
+    }
+
+    /**
+     * Sort the 2D jobs array by deadline (2nd element of each pair)
+     */
+    class SortByDeadline implements Comparator<int[]> {
+        public int compare(int[] a, int[] b) {
+            return a[1] - b[1];
+        }
+    }
+
+    /**
+     * Keep some metrics for performance tracking
+     */
+    class MetricsBag {
+        public int depth;
+        public int calls;
+        public int computations;
+    }
+
+}
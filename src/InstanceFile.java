@@ -0,0 +1,240 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reading and writing instances without {@link java.util.Scanner}.
+ * <p>
+ * A .dat file holds the number of jobs followed by a processing time and a deadline
+ * per job, as ASCII ints separated by whitespace. {@link #readDat} maps the file and
+ * reads the ints straight from the mapped bytes. Anything else, a missing int or one
+ * that does not fit, fails with an IOException that says where.
+ * <p>
+ * A .pack file holds a whole directory of instances in one binary container, read
+ * with a single mapping by {@link #readPack}. All ints are big-endian:
+ * <pre>
+ *     magic "TPCK", version, number of instances
+ *     per instance: name length in bytes, name (UTF-8, without .dat), n, n times (p, d)
+ * </pre>
+ */
+public class InstanceFile {
+
+    private static final int MAGIC = 0x5450434B; // "TPCK"
+    private static final int VERSION = 1;
+
+    /**
+     * Parse a .dat file over a read-only mapping of it.
+     */
+    public static ProblemInstance readDat(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (!buffer.hasRemaining())
+                throw new IOException("Empty file");
+
+            int numJobs = nextInt(buffer);
+            if (numJobs < 0)
+                throw new IOException("Negative number of jobs: " + numJobs);
+
+            int[][] jobs = new int[numJobs][2];
+
+            for (int x = 0; x < numJobs; x++) {
+                if (!skipWhitespace(buffer))
+                    throw new IOException("Truncated after " + x + " of " + numJobs + " jobs");
+
+                jobs[x][0] = nextInt(buffer);
+                jobs[x][1] = nextInt(buffer);
+            }
+
+            return new ProblemInstance(numJobs, jobs);
+        }
+    }
+
+    /**
+     * Read the next ASCII int: whitespace, an optional '-' and digits, followed by
+     * whitespace or the end of the file.
+     */
+    private static int nextInt(ByteBuffer buffer) throws IOException {
+        if (!skipWhitespace(buffer))
+            throw new IOException("Unexpected end of file");
+
+        int start = buffer.position();
+        boolean negative = buffer.get(start) == '-';
+        if (negative)
+            buffer.get();
+
+        long value = 0;
+        int digits = 0;
+        while (buffer.hasRemaining() && !isWhitespace(buffer.get(buffer.position()))) {
+            byte c = buffer.get();
+            if (c < '0' || c > '9')
+                throw new IOException("Unexpected character '" + (char) c + "' at " + (buffer.position() - 1));
+
+            value = 10 * value + (c - '0');
+            if (value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE))
+                throw new IOException("Int out of range at " + start);
+            digits++;
+        }
+
+        if (digits == 0)
+            throw new IOException("Missing digits at " + start);
+
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Move past any whitespace and return whether anything is left.
+     */
+    private static boolean skipWhitespace(ByteBuffer buffer) {
+        while (buffer.hasRemaining() && isWhitespace(buffer.get(buffer.position())))
+            buffer.get();
+        return buffer.hasRemaining();
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f' || c == 0x0B;
+    }
+
+    /**
+     * Read all instances of a .pack file, by name in file order.
+     */
+    public static Map<String, ProblemInstance> readPack(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not an instance pack: " + path);
+            if (buffer.getInt() != VERSION)
+                throw new IOException("Unsupported pack version in " + path);
+
+            int count = buffer.getInt();
+            Map<String, ProblemInstance> instances = new LinkedHashMap<>();
+
+            for (int x = 0; x < count; x++) {
+                byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+
+                int numJobs = buffer.getInt();
+                int[][] jobs = new int[numJobs][2];
+                for (int job = 0; job < numJobs; job++) {
+                    jobs[job][0] = buffer.getInt();
+                    jobs[job][1] = buffer.getInt();
+                }
+
+                instances.put(new String(name, StandardCharsets.UTF_8), new ProblemInstance(numJobs, jobs));
+            }
+
+            return instances;
+        }
+    }
+
+    /**
+     * Write instances to a .pack file, in the order of the map.
+     */
+    public static void writePack(Path path, Map<String, ProblemInstance> instances) throws IOException {
+        long size = 12;
+        for (Map.Entry<String, ProblemInstance> entry : instances.entrySet())
+            size += 8 + entry.getKey().getBytes(StandardCharsets.UTF_8).length
+                    + 8L * entry.getValue().getNumJobs();
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(instances.size());
+
+        for (Map.Entry<String, ProblemInstance> entry : instances.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(name.length).put(name);
+
+            int[][] jobs = entry.getValue().getJobs();
+            buffer.putInt(entry.getValue().getNumJobs());
+            for (int[] job : jobs)
+                buffer.putInt(job[0]).putInt(job[1]);
+        }
+
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Write one instance as a .dat file.
+     */
+    public static void writeDat(Path path, ProblemInstance instance) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.US_ASCII))) {
+            out.print(instance.getNumJobs() + "\n");
+            for (int[] job : instance.getJobs())
+                out.print(job[0] + " " + job[1] + "\n");
+        }
+    }
+
+    /**
+     * Read all .dat files of a directory, by name without .dat in name order.
+     */
+    public static Map<String, ProblemInstance> readDirectory(Path dir) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.dat")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                names.add(name.substring(0, name.length() - 4));
+            }
+        }
+        Collections.sort(names);
+
+        Map<String, ProblemInstance> instances = new LinkedHashMap<>();
+        for (String name : names) {
+            try {
+                instances.put(name, readDat(dir.resolve(name + ".dat")));
+            } catch (IOException e) {
+                throw new IOException("Cannot read instance " + name + ": " + e.getMessage(), e);
+            }
+        }
+
+        return instances;
+    }
+
+    public static void main(String args[]) {
+
+        if (args.length != 3 || !(args[0].equals("pack") || args[0].equals("unpack"))) {
+            System.out.println("Usage: pack path/to/instance/dir path/to/instances.pack");
+            System.out.println("   or: unpack path/to/instances.pack path/to/instance/dir");
+            return;
+        }
+
+        try {
+            long t0 = System.nanoTime();
+
+            if (args[0].equals("pack")) {
+                Map<String, ProblemInstance> instances = readDirectory(Paths.get(args[1]));
+                writePack(Paths.get(args[2]), instances);
+                System.out.println("Packed " + instances.size() + " instances in "
+                        + (System.nanoTime() - t0) / 1000000 + " ms");
+            } else {
+                Map<String, ProblemInstance> instances = readPack(Paths.get(args[1]));
+                Path dir = Files.createDirectories(Paths.get(args[2]));
+                for (Map.Entry<String, ProblemInstance> entry : instances.entrySet())
+                    writeDat(dir.resolve(entry.getKey() + ".dat"), entry.getValue());
+                System.out.println("Unpacked " + instances.size() + " instances in "
+                        + (System.nanoTime() - t0) / 1000000 + " ms");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
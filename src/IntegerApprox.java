@@ -0,0 +1,445 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Lawler's FPTAS on an integer-scaled instance with dense memo arrays.
+ * <p>
+ * Both processing times and deadlines are divided by K and rounded down, so the scaled
+ * instance is solved with integers only: the recursion is the one of
+ * {@link ImplicitDynamic}, on {@link RankTables} of the scaled jobs. Rounding the
+ * deadlines costs at most K per job on top of Lawler's K n(n+1)/2, so K is taken as
+ * 2 epsilon Tmax / (n(n+3)) to keep the (1 + epsilon) guarantee.
+ * <p>
+ * The memo holds a dense int range per visited (i,j,k), indexed by t. A set S is all
+ * early up to some t and all late from some t on (see {@link Dynamic.Regions}), so
+ * its range only covers the start times between these two, capped by the largest
+ * start time S can have. Everything outside is answered in closed form.
+ */
+public class IntegerApprox {
+
+    /**
+     * The original problem data
+     */
+    private int[][] jobs;
+
+    private float epsilon;
+
+    /**
+     * The scaled problem data
+     */
+    private RankTables tables;
+
+    /**
+     * Total scaled processing time, the end of the t domain
+     */
+    private int horizon;
+
+    /**
+     * Maps (i,j,k,0) to the memo slot of sub-problem (i,j,k)
+     */
+    private MemoTable index;
+
+    /**
+     * Per slot: a header of HEADER ints, and the tardiness for t = base, base + 1, ...
+     * in pages of PAGE cells, or -1 if not computed yet. Pages are allocated on first
+     * write, as most start times in the range are never reached.
+     */
+    private int[][] headers;
+    private int[][][] pages;
+    private int slots;
+
+    private static final int PAGE_BITS = 6;
+    private static final int PAGE = 1 << PAGE_BITS;
+
+    private static final int EARLY = 0;
+    private static final int LATE = 1;
+    private static final int CONSTANT = 2;
+    private static final int SIZE = 3;
+    private static final int BASE = 4;
+    private static final int HEADER = 5;
+
+    /**
+     * Store some performance data for evaluation
+     */
+    private MetricsBag metrics;
+
+    public IntegerApprox(ProblemInstance instance, float epsilon) {
+
+        this.jobs = instance.getJobs();
+        this.epsilon = epsilon;
+        metrics = new MetricsBag();
+
+        // Earliest Due Date order
+        Arrays.sort(jobs, new SortByDeadline()); // O(n log n)
+    }
+
+    /**
+     * Given EDD order, calculate the maximum tardiness
+     */
+    public int getTmax() {
+        int completionTime = 0;
+        int maxTardiness = 0;
+
+        for (int[] job : jobs) {
+            completionTime += job[0];
+
+            maxTardiness = Math.max(maxTardiness, completionTime - job[1]);
+        }
+
+        return maxTardiness;
+    }
+
+    /**
+     * Given a list of job indices, compute the total tardiness of that sequence
+     */
+    public int computeTotalTardiness(int[] sequence) {
+        int completionTime = 0;
+        int totalTardiness = 0;
+
+        for (int index : sequence) {
+            completionTime += jobs[index][0];
+
+            totalTardiness += Math.max(0, completionTime - jobs[index][1]);
+        }
+
+        return totalTardiness;
+    }
+
+    /**
+     * Calculate the total tardiness on this problem instance
+     */
+    public int calculateTardiness() {
+        return computeTotalTardiness(calculateSequence());
+    }
+
+    /**
+     * Calculate an approximate sequence of job indices, which refer to the jobs of
+     * the instance in Earliest Due Date order.
+     */
+    public int[] calculateSequence() {
+        int n = jobs.length;
+        int[] sequence = new int[n];
+        metrics = new MetricsBag();
+
+        int maxTardiness = getTmax();
+
+        // EDD is optimal
+        if (maxTardiness == 0) {
+            for (int i = 0; i < n; i++)
+                sequence[i] = i;
+            return sequence;
+        }
+
+        // No rounding below a unit: solve the instance itself
+        double K = Math.max(1, 2.0 * epsilon * maxTardiness / ((double) n * (n + 3)));
+
+        int[][] scaled = new int[n][2];
+        horizon = 0;
+        for (int x = 0; x < n; x++) {
+            scaled[x][0] = (int) (jobs[x][0] / K);
+            scaled[x][1] = (int) (jobs[x][1] / K);
+            horizon += scaled[x][0];
+        }
+
+        tables = new RankTables(scaled);
+        index = new MemoTable(n);
+        headers = new int[1024][];
+        pages = new int[1024][][];
+        slots = 0;
+
+        // Fill the memo, then walk it
+        calculateTardiness(0, n - 1, n, 0, 0);
+        reconstructSequence(0, n - 1, n, 0, 0, sequence);
+
+        return sequence;
+    }
+
+    /**
+     * Performance data of the last computation
+     */
+    public MetricsBag getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Calculate the minimum scaled tardiness of all jobs with an index in [a..b] and
+     * a rank below r, starting at scaled time t.
+     * <p>
+     * Note: depth is only passed for performance analysis.
+     */
+    private int calculateTardiness(int a, int b, int r, int t, int depth) {
+
+        metrics.calls++;
+        metrics.depth = Math.max(metrics.depth, depth);
+
+        // Limit i and j to the jobs actually in the set
+        int i = tables.first(a, r);
+
+        // Base case: empty set
+        if (i > b)
+            return 0;
+
+        int j = tables.last(b, r);
+
+        // Base case: single element
+        if (i == j)
+            return Math.max(0, t + tables.p[i] - tables.d[i]);
+
+        int kPrime = tables.maxP(i, j, r);
+        int kRank = tables.rank[kPrime];
+
+        int bucket = bucket(i, j, kPrime);
+        int[] header = headers[bucket];
+
+        if (t <= header[EARLY] || t >= header[LATE]) {
+            metrics.closedForm++;
+            return closedForm(header, t);
+        }
+
+        // Check whether this sub-problem has been calculated before
+        int cell = t - header[BASE];
+        int[] page = pages[bucket][cell >>> PAGE_BITS];
+        if (page != null && page[cell & (PAGE - 1)] >= 0)
+            return page[cell & (PAGE - 1)];
+
+        metrics.computations++;
+
+        int lowestTardiness = Integer.MAX_VALUE;
+
+        // All jobs in [i..j] with a rank below k' form the set without k'. The left
+        // side holds those before `split`, the right side those from `split` on.
+        int split = kPrime;
+
+        while (true) {
+
+            // The time until the left hand side is complete.
+            int leftComplete = t + tables.totalP(i, split, kRank);
+
+            int rightStart = tables.first(split, kRank);
+            boolean rightEmpty = rightStart > j;
+
+            // Only compute when d_x > leftComplete, for x the first element on the right
+            if (rightEmpty || tables.d[rightStart] > leftComplete) {
+
+                int tardinessLeft = calculateTardiness(i, split - 1, kRank, t, depth + 1);
+
+                int kPrimeDone = leftComplete + tables.p[kPrime];
+                int tardinessKPrime = Math.max(0, kPrimeDone - tables.d[kPrime]);
+
+                int tardinessRight = rightEmpty ? 0 :
+                        calculateTardiness(rightStart, j, kRank, kPrimeDone, depth + 1);
+
+                int total = tardinessLeft + tardinessKPrime + tardinessRight;
+
+                if (total < lowestTardiness)
+                    lowestTardiness = total;
+            }
+
+            if (rightEmpty)
+                break;
+
+            // Move over one job from the right to the left side.
+            split = rightStart + 1;
+        }
+
+        if (page == null) {
+            page = pages[bucket][cell >>> PAGE_BITS] = new int[PAGE];
+            Arrays.fill(page, -1);
+            metrics.cells += PAGE;
+        }
+
+        page[cell & (PAGE - 1)] = lowestTardiness;
+
+        return lowestTardiness;
+    }
+
+    /**
+     * Put the jobs with an index in [a..b] and a rank below r, started at scaled time t,
+     * in the sequence from position p0 on, in the order the memo found optimal.
+     * Returns the position after the last job placed.
+     */
+    private int reconstructSequence(int a, int b, int r, int t, int p0, int[] seq) {
+
+        int i = tables.first(a, r);
+
+        if (i > b)
+            return p0;
+
+        int j = tables.last(b, r);
+
+        if (i == j) {
+            seq[p0] = i;
+            return p0 + 1;
+        }
+
+        int kPrime = tables.maxP(i, j, r);
+        int kRank = tables.rank[kPrime];
+
+        int[] header = headers[bucket(i, j, kPrime)];
+
+        // All early: EDD order
+        if (t <= header[EARLY]) {
+            for (int x = i; x <= j; x++)
+                if (tables.rank[x] <= kRank)
+                    seq[p0++] = x;
+            return p0;
+        }
+
+        // All late: SPT order
+        if (t >= header[LATE]) {
+            for (int rank = 0; rank <= kRank; rank++) {
+                int x = tables.byRank[rank];
+                if (x >= i && x <= j)
+                    seq[p0++] = x;
+            }
+            return p0;
+        }
+
+        int target = calculateTardiness(i, j, r, t, 0);
+
+        // Find the first position of k' that reaches the memoized optimum, as the
+        // forward pass did. All sub-problems involved are memo hits or closed forms.
+        int split = kPrime;
+
+        while (true) {
+            int leftComplete = t + tables.totalP(i, split, kRank);
+
+            int rightStart = tables.first(split, kRank);
+            boolean rightEmpty = rightStart > j;
+
+            if (rightEmpty || tables.d[rightStart] > leftComplete) {
+                int kPrimeDone = leftComplete + tables.p[kPrime];
+
+                int total = calculateTardiness(i, split - 1, kRank, t, 0)
+                        + Math.max(0, kPrimeDone - tables.d[kPrime])
+                        + (rightEmpty ? 0 : calculateTardiness(rightStart, j, kRank, kPrimeDone, 0));
+
+                if (total == target) {
+                    p0 = reconstructSequence(i, split - 1, kRank, t, p0, seq);
+                    seq[p0++] = kPrime;
+                    return rightEmpty ? p0 : reconstructSequence(rightStart, j, kRank, kPrimeDone, p0, seq);
+                }
+            }
+
+            if (rightEmpty)
+                throw new IllegalStateException("No position of job " + kPrime + " reaches " + target);
+
+            split = rightStart + 1;
+        }
+    }
+
+    /**
+     * The memo slot of sub-problem (i,j,k), allocated on first use.
+     */
+    private int bucket(int i, int j, int k) {
+        int bucket = index.get(i, j, k, 0);
+
+        if (bucket < 0) {
+            bucket = slots++;
+            if (bucket == headers.length) {
+                headers = Arrays.copyOf(headers, bucket << 1);
+                pages = Arrays.copyOf(pages, bucket << 1);
+            }
+
+            index.set(i, j, k, 0, bucket);
+            allocate(bucket, i, j, k);
+        }
+
+        return bucket;
+    }
+
+    /**
+     * Compute the all-early and all-late bounds of the jobs in [i..j] with a rank up to
+     * that of k, and allocate the page table for the range of start times between them.
+     * Runs O(n), once per (i,j,k)
+     */
+    private void allocate(int bucket, int i, int j, int k) {
+        int kRank = tables.rank[k];
+
+        // EDD order: all early iff t <= min(d_x - C_x)
+        int completion = 0;
+        int early = Integer.MAX_VALUE;
+        int late = Integer.MIN_VALUE;
+        int sumD = 0;
+
+        for (int x = i; x <= j; x++) {
+            if (tables.rank[x] > kRank)
+                continue;
+
+            completion += tables.p[x];
+            early = Math.min(early, tables.d[x] - completion);
+            late = Math.max(late, tables.d[x] - tables.p[x]);
+            sumD += tables.d[x];
+        }
+
+        // SPT order is rank order: all late iff t >= max(d_x - p_x), with tardiness
+        // |S| t + sum(C_x) - sum(d_x)
+        int size = 0;
+        int sumC = 0;
+        completion = 0;
+
+        for (int rank = 0; rank <= kRank; rank++) {
+            int x = tables.byRank[rank];
+            if (x < i || x > j)
+                continue;
+
+            completion += tables.p[x];
+            sumC += completion;
+            size++;
+        }
+
+        // Start times a set can have: from 0 up to the horizon minus its own length
+        int base = Math.max(0, early + 1);
+        int last = Math.min(late - 1, horizon - completion);
+        int cells = Math.max(0, last - base + 1);
+
+        int[] header = new int[HEADER];
+        header[EARLY] = early;
+        header[LATE] = late;
+        header[CONSTANT] = sumC - sumD;
+        header[SIZE] = size;
+        header[BASE] = base;
+
+        headers[bucket] = header;
+        pages[bucket] = new int[(cells + PAGE - 1) >>> PAGE_BITS][];
+
+        metrics.buckets++;
+    }
+
+    /**
+     * The tardiness of a sub-problem started in its all-early or all-late region
+     */
+    private static int closedForm(int[] header, int t) {
+        return t <= header[EARLY] ? 0 : header[SIZE] * t + header[CONSTANT];
+    }
+
+    /**
+     * Sort the 2D jobs array by deadline (2nd element of each pair)
+     */
+    class SortByDeadline implements Comparator<int[]> {
+        public int compare(int[] a, int[] b) {
+            return a[1] - b[1];
+        }
+    }
+
+    /**
+     * Keep some metrics for performance tracking
+     */
+    class MetricsBag {
+        public int depth;
+        public int calls;
+        public int computations;
+
+        /**
+         * Sub-problems answered in closed form
+         */
+        public int closedForm;
+
+        /**
+         * Visited sub-problems (i,j,k) and the number of t cells allocated for them
+         */
+        public int buckets;
+        public long cells;
+    }
+
+}
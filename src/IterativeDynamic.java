@@ -0,0 +1,226 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Lawler's Minimum Tardiness algorithm without recursion.
+ * <p>
+ * Works on the same implicit sub-problems as {@link ImplicitDynamic}, but keeps the
+ * open sub-problems on an explicit stack of frames instead of the thread stack. A
+ * sub-problem always holds fewer jobs than its parent, so the stack never grows
+ * beyond n + 1 frames and large instances run fine on the default thread stack size.
+ */
+public class IterativeDynamic {
+
+    /**
+     * Phases of a frame: looking for the next position of k', waiting for the
+     * result of the left side, waiting for the result of the right side.
+     */
+    private static final int SCAN = 0;
+    private static final int LEFT = 1;
+    private static final int RIGHT = 2;
+
+    /**
+     * The original problem data
+     */
+    private int[][] jobs;
+
+    private RankTables tables;
+
+    /**
+     * Store some performance data for evaluation
+     */
+    private MetricsBag metrics;
+
+    /**
+     * Store all calculated results for sub-problems (i,j,k,t)
+     */
+    private MemoTable store;
+
+    /**
+     * The frame stack, one entry per open sub-problem. `split` is the index at
+     * which the right side starts, or -1 once every position of k' was tried.
+     */
+    private int top;
+    private int[] phase;
+    private int[] i;
+    private int[] j;
+    private int[] kPrime;
+    private int[] t;
+    private int[] split;
+    private int[] rightStart;
+    private int[] leftComplete;
+    private int[] tardinessLeft;
+    private int[] lowestTardiness;
+
+    public IterativeDynamic(ProblemInstance instance) {
+
+        jobs = instance.getJobs();
+        metrics = new MetricsBag();
+
+        Arrays.sort(jobs, new SortByDeadline()); // O(n log n)
+
+        tables = new RankTables(jobs); // O(n^2 log n)
+        store = new MemoTable(jobs.length);
+
+        int frames = jobs.length + 1;
+        phase = new int[frames];
+        i = new int[frames];
+        j = new int[frames];
+        kPrime = new int[frames];
+        t = new int[frames];
+        split = new int[frames];
+        rightStart = new int[frames];
+        leftComplete = new int[frames];
+        tardinessLeft = new int[frames];
+        lowestTardiness = new int[frames];
+    }
+
+    public int calculateTardiness() {
+        int n = jobs.length;
+
+        if (n == 0)
+            return 0;
+
+        top = -1;
+
+        // Result of the last sub-problem that was solved
+        int result = open(0, n - 1, n, 0);
+
+        while (top >= 0) {
+            int f = top;
+
+            if (phase[f] == SCAN) {
+                if (!nextSplit(f)) {
+                    // All positions tried: store the result and return to the parent
+                    store.set(i[f], j[f], kPrime[f], t[f], lowestTardiness[f]);
+                    result = lowestTardiness[f];
+                    top--;
+                    continue;
+                }
+
+                phase[f] = LEFT;
+                result = open(i[f], split[f] - 1, tables.rank[kPrime[f]], t[f]);
+                if (result < 0)
+                    continue; // Left side pushed as a new frame
+            }
+
+            if (phase[f] == LEFT) {
+                tardinessLeft[f] = result;
+                phase[f] = RIGHT;
+
+                result = rightStart[f] > j[f] ? 0 :
+                        open(rightStart[f], j[f], tables.rank[kPrime[f]], kPrimeDone(f));
+                if (result < 0)
+                    continue; // Right side pushed as a new frame
+            }
+
+            // phase[f] == RIGHT
+            int done = kPrimeDone(f);
+            int total = tardinessLeft[f] + Math.max(0, done - tables.d[kPrime[f]]) + result;
+
+            if (total < lowestTardiness[f])
+                lowestTardiness[f] = total;
+
+            // Move over one job from the right to the left side.
+            split[f] = rightStart[f] > j[f] ? -1 : rightStart[f] + 1;
+            phase[f] = SCAN;
+        }
+
+        return result;
+    }
+
+    /**
+     * Open the sub-problem of all jobs with an index in [a..b] and a rank below r,
+     * starting at time t. Returns its tardiness when it is trivial or cached,
+     * otherwise pushes a new frame for it and returns -1.
+     */
+    private int open(int a, int b, int r, int start) {
+
+        metrics.calls++;
+
+        // Limit i and j to the jobs actually in the set
+        int first = tables.first(a, r);
+
+        // Base case: empty set
+        if (first > b)
+            return 0;
+
+        int last = tables.last(b, r);
+
+        // Base case: single element
+        if (first == last)
+            return Math.max(0, start + tables.p[first] - tables.d[first]);
+
+        int k = tables.maxP(first, last, r);
+
+        // Check whether this sub-problem has been calculated before
+        int res = store.get(first, last, k, start);
+        if (res >= 0)
+            return res;
+
+        metrics.computations++;
+
+        int f = ++top;
+        metrics.depth = Math.max(metrics.depth, top);
+
+        phase[f] = SCAN;
+        i[f] = first;
+        j[f] = last;
+        kPrime[f] = k;
+        t[f] = start;
+        split[f] = k;
+        lowestTardiness[f] = Integer.MAX_VALUE;
+
+        return -1;
+    }
+
+    /**
+     * Advance frame f to the next position of k' for which d_x > leftComplete,
+     * for x the first job on the right. Returns false when none is left.
+     */
+    private boolean nextSplit(int f) {
+        if (split[f] < 0)
+            return false;
+
+        int kRank = tables.rank[kPrime[f]];
+
+        while (true) {
+            int complete = t[f] + tables.totalP(i[f], split[f], kRank);
+            int start = tables.first(split[f], kRank);
+
+            if (start > j[f] || tables.d[start] > complete) {
+                leftComplete[f] = complete;
+                rightStart[f] = start;
+                return true;
+            }
+
+            split[f] = start + 1;
+        }
+    }
+
+    /**
+     * The completion time of k' in frame f
+     */
+    private int kPrimeDone(int f) {
+        return leftComplete[f] + tables.p[kPrime[f]];
+    }
+
+    /**
+     * Sort the 2D jobs array by deadline (2nd element of each pair)
+     */
+    class SortByDeadline implements Comparator<int[]> {
+        public int compare(int[] a, int[] b) {
+            return a[1] - b[1];
+        }
+    }
+
+    /**
+     * Keep some metrics for performance tracking
+     */
+    class MetricsBag {
+        public int depth;
+        public int calls;
+        public int computations;
+    }
+
+}
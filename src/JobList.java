@@ -1,3 +1,5 @@
+import java.util.SplittableRandom;
+
 /**
  * Efficient implementation to manage the sub-problem instance.
  * <p>
@@ -27,6 +29,12 @@ public class JobList<T extends Number> {
      */
     public int length = 0;
 
+    /**
+     * Identifies the set of jobs in the list: the XOR of the random codes of
+     * all its jobs (Zobrist hashing), maintained on every change.
+     */
+    public long signature = 0;
+
     /**
      * Create a JobList from a 2D jobs array (float)
      */
@@ -36,6 +44,8 @@ public class JobList<T extends Number> {
         for (int x = 0; x < jobs.length; x++)
             nodes[x] = new JobNode(x, (int) jobs[x][0], jobs[x][1]);
 
+        assignCodes(nodes);
+
         return new JobList(nodes, false);
     }
 
@@ -48,9 +58,21 @@ public class JobList<T extends Number> {
         for (int x = 0; x < jobs.length; x++)
             nodes[x] = new JobNode(x, jobs[x][0], jobs[x][1]);
 
+        assignCodes(nodes);
+
         return new JobList(nodes, false);
     }
 
+    /**
+     * Give every node a random code for the set signature.
+     */
+    private static void assignCodes(JobNode<?>[] nodes) {
+        SplittableRandom random = new SplittableRandom(nodes.length);
+
+        for (JobNode<?> node : nodes)
+            node.code = random.nextLong();
+    }
+
     /**
      * Create a new JobList based on the set of all jobs
      * Runs O( empty ? 1 : n )
@@ -86,6 +108,7 @@ public class JobList<T extends Number> {
 
         length++;
         totalP += n.p;
+        signature ^= n.code;
 
         return n;
     }
@@ -120,6 +143,7 @@ public class JobList<T extends Number> {
 
         length++;
         totalP += jobs[x].p;
+        signature ^= jobs[x].code;
 
 
         return newNode;
@@ -139,7 +163,7 @@ public class JobList<T extends Number> {
         JobNode prev = null;
         int currP = 0;
 
-        int maxP = 0;
+        int maxP = -1;
         JobNode k = null;
         JobNode beforeK = null;
 
@@ -179,6 +203,7 @@ public class JobList<T extends Number> {
 
         length--;
         totalP -= target.p;
+        signature ^= target.code;
 
 
     }
@@ -190,6 +215,7 @@ public class JobList<T extends Number> {
     public JobList split(int x) throws Exception {
         int lengthL = 0;
         int totalPL = 0;
+        long signatureL = 0;
 
         JobNode current = start;
         JobNode prev = null;
@@ -203,6 +229,7 @@ public class JobList<T extends Number> {
                 right.end = end;
                 right.length = length - lengthL;
                 right.totalP = totalP - totalPL;
+                right.signature = signature ^ signatureL;
 
                 // Correct the left list
                 if (current == start) {
@@ -214,12 +241,14 @@ public class JobList<T extends Number> {
                 }
                 length = lengthL;
                 totalP = totalPL;
+                signature = signatureL;
 
                 return right;
             }
 
             lengthL += 1;
             totalPL += current.p;
+            signatureL ^= current.code;
             prev = current;
             current = current.next;
         }
@@ -242,6 +271,7 @@ public class JobList<T extends Number> {
         start = start.next;
         length -= 1;
         totalP -= first.p;
+        signature ^= first.code;
 
         first.join(null);
 
@@ -276,6 +306,11 @@ public class JobList<T extends Number> {
          */
         S d;
 
+        /**
+         * Random code of this job for the set signature
+         */
+        long code;
+
         /**
          * The next job currently linked to
          */
@@ -0,0 +1,252 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Time-budgeted iterated local search that improves any sequence of jobs.
+ * <p>
+ * The neighbourhood moves one job to another position (insertion); moving a job by
+ * one position is the adjacent pairwise interchange. Moving job j from position x to y
+ * shifts every job in between by p_j, so with the prefix completion times C the
+ * change in tardiness is
+ * <pre>
+ *   sum over z between x and y of T(b_z, C[z] -/+ p_j) - T(b_z, C[z])  +  T(j, new) - T(j, C[x])
+ * </pre>
+ * Scanning y away from x extends that sum by one term per step, so every candidate
+ * move is scored in O(1). After every local optimum the sequence is perturbed by a
+ * few random insertions and the best sequence found is kept.
+ */
+public class LocalSearch {
+
+    /**
+     * The furthest a job is moved in one step
+     */
+    public static final int DEFAULT_WINDOW = 256;
+
+    /**
+     * Random insertions applied to escape a local optimum
+     */
+    private static final int PERTURBATION = 3;
+
+    private int numJobs;
+
+    /**
+     * Processing times and deadlines by job index
+     */
+    private int[] p;
+    private int[] d;
+
+    private int window;
+
+    private Random random;
+
+    /**
+     * The sequence being improved and its completion times
+     */
+    private int[] sequence;
+    private int[] completion;
+
+    private int initialTardiness;
+    private int bestTardiness;
+    private int iterations;
+
+    /**
+     * Job indices refer to instance.getJobs() as it is at construction time.
+     */
+    public LocalSearch(ProblemInstance instance) {
+        this(instance, DEFAULT_WINDOW, 42);
+    }
+
+    public LocalSearch(ProblemInstance instance, int window, long seed) {
+        numJobs = instance.getNumJobs();
+        int[][] jobs = instance.getJobs();
+
+        p = new int[numJobs];
+        d = new int[numJobs];
+        for (int i = 0; i < numJobs; i++) {
+            p[i] = jobs[i][0];
+            d[i] = jobs[i][1];
+        }
+
+        this.window = Math.max(1, window);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Improve a sequence for at most the given number of milliseconds and
+     * return the best sequence found. The input is not modified.
+     */
+    public int[] improve(int[] start, long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1000000;
+
+        sequence = Arrays.copyOf(start, numJobs);
+        completion = new int[numJobs];
+        recompute(0, numJobs - 1);
+
+        initialTardiness = tardiness();
+        iterations = 0;
+
+        int current = descend(initialTardiness, deadline);
+        int[] best = Arrays.copyOf(sequence, numJobs);
+        bestTardiness = current;
+
+        while (numJobs > 1 && bestTardiness > 0 && System.nanoTime() < deadline) {
+            iterations++;
+
+            for (int x = 0; x < PERTURBATION; x++) {
+                int from = random.nextInt(numJobs);
+                int to = Math.max(0, Math.min(numJobs - 1, from + random.nextInt(2 * window + 1) - window));
+                current += delta(from, to);
+                move(from, to);
+            }
+
+            current = descend(current, deadline);
+
+            if (current <= bestTardiness) {
+                bestTardiness = current;
+                System.arraycopy(sequence, 0, best, 0, numJobs);
+            } else {
+                // Restart from the best sequence
+                System.arraycopy(best, 0, sequence, 0, numJobs);
+                recompute(0, numJobs - 1);
+                current = bestTardiness;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Total tardiness of the sequence given to the last {@link #improve} call
+     */
+    public int getInitialTardiness() {
+        return initialTardiness;
+    }
+
+    /**
+     * Total tardiness of the sequence returned by the last {@link #improve} call
+     */
+    public int getTardiness() {
+        return bestTardiness;
+    }
+
+    /**
+     * The number of perturbations tried by the last {@link #improve} call
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Apply improving insertions until none is left or time runs out.
+     * Returns the tardiness of the resulting sequence.
+     */
+    private int descend(int tardiness, long deadline) {
+        boolean improved = true;
+
+        while (improved) {
+            improved = false;
+
+            for (int x = 0; x < numJobs; x++) {
+                if ((x & 63) == 0 && System.nanoTime() >= deadline)
+                    return tardiness;
+
+                int job = sequence[x];
+                int bestDelta = 0;
+                int bestTo = x;
+
+                // Move right: the jobs passed finish p_j earlier
+                int sum = -tardy(job, completion[x]);
+                for (int y = x + 1; y < numJobs && y - x <= window; y++) {
+                    int b = sequence[y];
+                    sum += tardy(b, completion[y] - p[job]) - tardy(b, completion[y]);
+
+                    int delta = sum + tardy(job, completion[y]);
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestTo = y;
+                    }
+                }
+
+                // Move left: the jobs passed finish p_j later
+                sum = -tardy(job, completion[x]);
+                for (int y = x - 1; y >= 0 && x - y <= window; y--) {
+                    int b = sequence[y];
+                    sum += tardy(b, completion[y] + p[job]) - tardy(b, completion[y]);
+
+                    int before = y == 0 ? 0 : completion[y - 1];
+                    int delta = sum + tardy(job, before + p[job]);
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestTo = y;
+                    }
+                }
+
+                if (bestTo != x) {
+                    move(x, bestTo);
+                    tardiness += bestDelta;
+                    improved = true;
+                }
+            }
+        }
+
+        return tardiness;
+    }
+
+    /**
+     * The change in tardiness of moving the job at position `from` to position `to`.
+     * Runs O(|from - to|)
+     */
+    private int delta(int from, int to) {
+        int job = sequence[from];
+        int sum = -tardy(job, completion[from]);
+
+        if (to > from) {
+            for (int y = from + 1; y <= to; y++)
+                sum += tardy(sequence[y], completion[y] - p[job]) - tardy(sequence[y], completion[y]);
+            return sum + tardy(job, completion[to]);
+        }
+
+        for (int y = from - 1; y >= to; y--)
+            sum += tardy(sequence[y], completion[y] + p[job]) - tardy(sequence[y], completion[y]);
+        int before = to == 0 ? 0 : completion[to - 1];
+        return sum + tardy(job, before + p[job]);
+    }
+
+    /**
+     * Move the job at position `from` to position `to`, shifting the jobs in between.
+     */
+    private void move(int from, int to) {
+        int job = sequence[from];
+
+        if (to > from)
+            System.arraycopy(sequence, from + 1, sequence, from, to - from);
+        else
+            System.arraycopy(sequence, to, sequence, to + 1, from - to);
+
+        sequence[to] = job;
+        recompute(Math.min(from, to), Math.max(from, to));
+    }
+
+    /**
+     * Recompute the completion times of positions [from..to]
+     */
+    private void recompute(int from, int to) {
+        int time = from == 0 ? 0 : completion[from - 1];
+
+        for (int x = from; x <= to; x++) {
+            time += p[sequence[x]];
+            completion[x] = time;
+        }
+    }
+
+    private int tardiness() {
+        int total = 0;
+        for (int x = 0; x < numJobs; x++)
+            total += tardy(sequence[x], completion[x]);
+        return total;
+    }
+
+    private int tardy(int job, int completionTime) {
+        return Math.max(0, completionTime - d[job]);
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Primitive open-addressing hash table from packed (i,j,k,t) keys to long values.
+ * <p>
+ * The same table as {@link MemoTable}, on the same {@link PackedKeyTable}, for memos
+ * that keep two results per sub-problem in one entry. Keys are packed by
+ * {@link PackedKeyTable#key}.
+ * <p>
+ * Only non-negative values can be stored, {@link #get} returns -1 for missing entries.
+ */
+public class LongMemoTable extends PackedKeyTable {
+
+    private long[] values;
+
+    /**
+     * Number of bits used for each of i, j and k in a packed key
+     */
+    private final int indexBits;
+
+    /**
+     * Create a memo for a problem with n jobs.
+     */
+    public LongMemoTable(int n) {
+        super(1 << 10);
+        values = new long[capacity()];
+        indexBits = indexBits(n);
+    }
+
+    /**
+     * Return the value of problem (i,j,k,t) or -1 if not available.
+     */
+    public long get(int i, int j, int k, int t) {
+        int slot = slotOf(key(i, j, k, t, indexBits));
+        return keys[slot] == EMPTY ? -1 : values[slot];
+    }
+
+    /**
+     * Save the value of problem (i,j,k,t), replacing any previous value.
+     */
+    public void set(int i, int j, int k, int t, long value) {
+        long key = key(i, j, k, t, indexBits);
+        int slot = slotOf(key);
+        values[slot] = value;
+
+        if (keys[slot] == EMPTY)
+            claim(slot, key);
+    }
+
+    /**
+     * Approximate heap footprint of the table in bytes.
+     */
+    public long bytes() {
+        return (long) keys.length * (Long.BYTES + Long.BYTES);
+    }
+
+    @Override
+    void resize(int capacity) {
+        long[] oldValues = values;
+        values = new long[capacity];
+        rehash(capacity, (from, to) -> values[to] = oldValues[from]);
+    }
+}
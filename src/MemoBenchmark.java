@@ -0,0 +1,324 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Compare the primitive {@link MemoTable} against the HashMap based store it replaced.
+ * <p>
+ * For every instance the exact algorithm is run once to collect the sub-problems it
+ * caches. Those keys are then loaded into both stores to measure their retained heap
+ * and the average cost of a lookup. Finally the instance is solved again in piecewise
+ * mode to compare the number of entries and calls, and the memo hits under
+ * (i,j,k,t) keys against canonical job-set keys, once more with bounds, and once
+ * with an {@link AdaptiveMemo} to see which backends its buckets end up in. Last,
+ * peak heap and garbage collection during the solve are compared against an
+ * {@link OffHeapMemoTable} sized to hold every entry.
+ */
+public class MemoBenchmark {
+
+    /**
+     * Number of passes over all keys when timing lookups
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * A timed solve with the peak heap and garbage collection it caused
+     */
+    static class Solve {
+        Dynamic dynamic;
+        long millis;
+        long peakHeap;
+        long collections;
+        long gcMillis;
+    }
+
+    public static void benchmarkInstance(String src, int answer) throws Exception {
+
+        System.out.println(src + ".dat");
+
+        Solve plain = benchmarkMemoTable(src, answer);
+        Dynamic piecewise = benchmarkPiecewise(src, answer, plain.dynamic);
+        benchmarkAdaptive(src, answer, plain.dynamic.getMemo());
+        benchmarkOffHeap(src, answer, plain);
+        benchmarkBounded(src, answer, piecewise);
+    }
+
+    /**
+     * Solve with a {@link MemoTable}, then load its entries into both stores to
+     * compare their retained heap and lookup cost.
+     */
+    static Solve benchmarkMemoTable(String src, int answer) throws Exception {
+
+        ProblemInstance instance = ComputeTardiness.readInstance(src + ".dat");
+        int n = instance.getNumJobs();
+        Solve solve = solve("MemoTable", new Dynamic(instance), false, answer);
+
+        MemoTable memo = solve.dynamic.getMemo();
+        long[] keys = new long[memo.size()];
+        int[] values = new int[memo.size()];
+        int[] x = {0};
+        memo.forEach((key, value) -> {
+            keys[x[0]] = key;
+            values[x[0]++] = value;
+        });
+        shuffle(keys, values);
+
+        // Retained size of both stores holding the same entries
+        System.gc();
+        long h0 = usedHeap();
+        LegacyStore legacy = new LegacyStore(n);
+        for (int e = 0; e < keys.length; e++)
+            legacy.set(memo.keyI(keys[e]), memo.keyJ(keys[e]), memo.keyK(keys[e]), memo.keyT(keys[e]), values[e]);
+        System.gc();
+        long legacyBytes = usedHeap() - h0;
+
+        System.gc();
+        h0 = usedHeap();
+        MemoTable table = new MemoTable(n);
+        for (int e = 0; e < keys.length; e++)
+            table.put(keys[e], values[e]);
+        System.gc();
+        long tableBytes = usedHeap() - h0;
+
+        long legacyNs = 0, tableNs = 0, check = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long l0 = System.nanoTime();
+            for (long key : keys)
+                check += legacy.get(memo.keyI(key), memo.keyJ(key), memo.keyK(key), memo.keyT(key));
+            long l1 = System.nanoTime();
+            for (long key : keys)
+                check -= table.get(memo.keyI(key), memo.keyJ(key), memo.keyK(key), memo.keyT(key));
+            long l2 = System.nanoTime();
+
+            // The first round only warms up both stores
+            if (round > 0) {
+                legacyNs += l1 - l0;
+                tableNs += l2 - l1;
+            }
+        }
+
+        if (check != 0)
+            throw new Exception("Stores disagree on " + src);
+
+        long lookups = Math.max(1, (long) keys.length * (ROUNDS - 1));
+
+        System.out.println("- Solve: " + solve.millis + " ms, peak heap " + solve.peakHeap / 1024 + " KB, "
+                + keys.length + " entries");
+        System.out.println("- HashMap store: " + legacyBytes / 1024 + " KB, "
+                + String.format("%.1f", (double) legacyNs / lookups) + " ns/lookup");
+        System.out.println("- MemoTable: " + tableBytes / 1024 + " KB, "
+                + String.format("%.1f", (double) tableNs / lookups) + " ns/lookup");
+
+        return solve;
+    }
+
+    /**
+     * Solve with all-early and all-late regions answered in closed form, and count
+     * memo hits under (i,j,k,t) keys against canonical job-set keys.
+     */
+    static Dynamic benchmarkPiecewise(String src, int answer, Dynamic plain) throws Exception {
+
+        Dynamic piecewise = new Dynamic(ComputeTardiness.readInstance(src + ".dat"), true);
+        piecewise.enableKeyAudit();
+        Solve solve = solve("Piecewise", piecewise, false, answer);
+
+        System.out.println("- Piecewise: " + solve.millis + " ms, "
+                + piecewise.getMemo().size() + " entries, "
+                + piecewise.getMetrics().calls + " calls (" + piecewise.getMetrics().closedForm
+                + " in closed form) vs " + plain.getMetrics().calls + " calls");
+        System.out.println("- Memo hits: " + piecewise.getMetrics().hits + " with (i,j,k,t) keys, "
+                + piecewise.getMetrics().canonicalHits + " with job-set keys");
+
+        return piecewise;
+    }
+
+    /**
+     * Solve with a backend picked per (i,j,k) from its fill density.
+     */
+    static void benchmarkAdaptive(String src, int answer, MemoTable memo) throws Exception {
+
+        Dynamic adaptive = new Dynamic(ComputeTardiness.readInstance(src + ".dat"));
+        adaptive.enableAdaptiveMemo();
+        Solve solve = solve("Adaptive", adaptive, false, answer);
+
+        int[] buckets = adaptive.getMetrics().buckets;
+        StringBuilder backends = new StringBuilder();
+        for (int backend = 0; backend < buckets.length; backend++)
+            backends.append(backend == 0 ? "" : ", ").append(buckets[backend]).append(' ')
+                    .append(AdaptiveMemo.BACKENDS[backend]);
+
+        System.out.println("- Adaptive: " + solve.millis + " ms, "
+                + adaptive.getMetrics().memoBytes / 1024 + " KB vs " + memo.bytes() / 1024
+                + " KB, buckets: " + backends);
+    }
+
+    /**
+     * Solve with the memo off the heap, with room for every entry below the load
+     * limit, and compare peak heap and garbage collection against the plain solve.
+     */
+    static void benchmarkOffHeap(String src, int answer, Solve plain) throws Exception {
+
+        Dynamic offHeap = new Dynamic(ComputeTardiness.readInstance(src + ".dat"));
+        offHeap.enableOffHeapMemo(2L * plain.dynamic.getMemo().size() * OffHeapMemoTable.SLOT_BYTES);
+        Solve solve = solve("Off-heap", offHeap, false, answer);
+
+        System.out.println("- Off-heap: " + solve.millis + " ms, peak heap " + solve.peakHeap / 1024
+                + " KB vs " + plain.peakHeap / 1024 + " KB, " + offHeap.getMetrics().memoBytes / 1024
+                + " KB direct, GC " + solve.collections + " collections in " + solve.gcMillis + " ms vs "
+                + plain.collections + " in " + plain.gcMillis + " ms");
+    }
+
+    /**
+     * Solve in piecewise mode with heuristic upper bounds pruning the recursion.
+     */
+    static void benchmarkBounded(String src, int answer, Dynamic piecewise) throws Exception {
+
+        Dynamic bounded = new Dynamic(ComputeTardiness.readInstance(src + ".dat"), true);
+        Solve solve = solve("Bounded", bounded, true, answer);
+
+        System.out.println("- Bounded: " + solve.millis + " ms, "
+                + bounded.getMemo().size() + " entries, "
+                + bounded.getMetrics().calls + " calls (" + bounded.getMetrics().skipped
+                + " skipped by bounds) vs " + piecewise.getMetrics().calls + " calls");
+    }
+
+    /**
+     * Solve after a full collection, timing the solve and measuring its peak heap and
+     * collections, and check the answer.
+     */
+    private static Solve solve(String name, Dynamic dynamic, boolean bounded, int answer) throws Exception {
+        System.gc();
+        long heapBefore = usedHeap();
+        resetPeakHeap();
+        long[] gcBefore = gcTotals();
+
+        long t0 = System.nanoTime();
+        int result = bounded ? dynamic.calculateTardinessBounded() : dynamic.calculateTardiness();
+        long t1 = System.nanoTime();
+
+        if (result != answer)
+            throw new Exception(name + ": Wrong answer: " + result + " should be " + answer);
+
+        long[] gc = gcTotals();
+
+        Solve solve = new Solve();
+        solve.dynamic = dynamic;
+        solve.millis = (t1 - t0) / 1000000;
+        solve.peakHeap = peakHeap() - heapBefore;
+        solve.collections = gc[0] - gcBefore[0];
+        solve.gcMillis = gc[1] - gcBefore[1];
+        return solve;
+    }
+
+    private static void shuffle(long[] keys, int[] values) {
+        Random random = new Random(42);
+
+        for (int x = keys.length - 1; x > 0; x--) {
+            int y = random.nextInt(x + 1);
+
+            long key = keys[x];
+            keys[x] = keys[y];
+            keys[y] = key;
+
+            int value = values[x];
+            values[x] = values[y];
+            values[y] = value;
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Collections and milliseconds spent collecting so far, over all collectors
+     */
+    private static long[] gcTotals() {
+        long[] totals = new long[2];
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            totals[0] += Math.max(0, collector.getCollectionCount());
+            totals[1] += Math.max(0, collector.getCollectionTime());
+        }
+        return totals;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        return peak;
+    }
+
+    /**
+     * The store as it was before {@link MemoTable}: a 3 dimensional array
+     * of HashMaps from `t` to the tardiness.
+     */
+    static class LegacyStore {
+
+        private HashMap<Integer, Integer>[][][] store;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public LegacyStore(int size) {
+            store = new HashMap[size][size][size];
+        }
+
+        public void set(int i, int j, int k, int t, int tardiness) {
+            if (store[i][j][k] == null)
+                store[i][j][k] = new HashMap<Integer, Integer>();
+
+            store[i][j][k].put(t, tardiness);
+        }
+
+        public int get(int i, int j, int k, int t) {
+            if (store[i][j][k] == null)
+                return -1;
+
+            Integer result = store[i][j][k].get(t);
+            return result == null ? -1 : result;
+        }
+    }
+
+    public static void main(String args[]) {
+
+        if (args.length != 4) {
+            System.out.println("Usage: path/to/answer.file path/to/instance/dir start limit");
+            return;
+        }
+
+        String answersFile = args[0];
+        String instanceRoot = args[1];
+        int start = Integer.parseInt(args[2]);
+        int limit = Integer.parseInt(args[3]);
+        int x = 0;
+
+        try {
+            Scanner sc = new Scanner(new BufferedReader(new FileReader(answersFile)));
+
+            while (sc.hasNext() && x++ < (start + limit)) {
+                String path = sc.next();
+                int ans = sc.nextInt();
+
+                if (x >= start)
+                    benchmarkInstance(instanceRoot + '/' + path, ans);
+            }
+
+            sc.close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
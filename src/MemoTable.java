@@ -0,0 +1,136 @@
+/**
+ * Primitive open-addressing hash table from packed (i,j,k,t) keys to int values.
+ * <p>
+ * Replaces the n*n*n array of boxed HashMaps that the memo used to be: there are no
+ * per-bucket objects and no boxing, every entry costs one long and one int. The
+ * probing, removal and growth are those of {@link PackedKeyTable}.
+ * <p>
+ * Only non-negative values can be stored, {@link #get} returns -1 for missing entries.
+ */
+public class MemoTable extends PackedKeyTable {
+
+    private int[] values;
+
+    private final SlotMover shift = (from, to) -> values[to] = values[from];
+
+    /**
+     * Number of bits used for each of i, j and k in a packed key, see
+     * {@link PackedKeyTable#indexBits}
+     */
+    private final int indexBits;
+
+    /**
+     * Create a memo for a problem with n jobs.
+     */
+    public MemoTable(int n) {
+        this(n, 1 << 10);
+    }
+
+    public MemoTable(int n, int initialCapacity) {
+        super(Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1));
+        values = new int[capacity()];
+        indexBits = indexBits(n);
+    }
+
+    /**
+     * Pack a sub-problem (i,j,k,t) into a single non-negative long.
+     */
+    public long key(int i, int j, int k, int t) {
+        return key(i, j, k, t, indexBits);
+    }
+
+    /**
+     * Unpack the i, j, k and t parts of a packed key.
+     */
+    public int keyI(long key) {
+        return keyI(key, indexBits);
+    }
+
+    public int keyJ(long key) {
+        return keyJ(key, indexBits);
+    }
+
+    public int keyK(long key) {
+        return keyK(key, indexBits);
+    }
+
+    public int keyT(long key) {
+        return keyT(key, indexBits);
+    }
+
+    /**
+     * Return the value of problem (i,j,k,t) or -1 if not available.
+     */
+    public int get(int i, int j, int k, int t) {
+        return get(key(i, j, k, t));
+    }
+
+    /**
+     * Save the value of problem (i,j,k,t).
+     */
+    public void set(int i, int j, int k, int t, int value) {
+        put(key(i, j, k, t), value);
+    }
+
+    /**
+     * Return the value stored for a packed key or -1 if not available.
+     */
+    public int get(long key) {
+        int slot = slotOf(key);
+        return keys[slot] == EMPTY ? -1 : values[slot];
+    }
+
+    /**
+     * Store a value for a packed key, replacing any previous value.
+     */
+    public void put(long key, int value) {
+        int slot = slotOf(key);
+        values[slot] = value;
+
+        if (keys[slot] == EMPTY)
+            claim(slot, key);
+    }
+
+    /**
+     * Remove the entry of a packed key and return its value, or -1 if not available.
+     */
+    public int remove(long key) {
+        int slot = slotOf(key);
+        if (keys[slot] == EMPTY)
+            return -1;
+
+        int value = values[slot];
+        release(slot, shift);
+        return value;
+    }
+
+    /**
+     * Approximate heap footprint of the table in bytes.
+     */
+    public long bytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Visit all entries in table order.
+     */
+    public void forEach(EntryVisitor visitor) {
+        for (int x = 0; x < keys.length; x++)
+            if (keys[x] != EMPTY)
+                visitor.visit(keys[x], values[x]);
+    }
+
+    @Override
+    void resize(int capacity) {
+        int[] oldValues = values;
+        values = new int[capacity];
+        rehash(capacity, (from, to) -> values[to] = oldValues[from]);
+    }
+
+    /**
+     * Callback for {@link #forEach}
+     */
+    public interface EntryVisitor {
+        void visit(long key, int value);
+    }
+}
@@ -0,0 +1,216 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Primitive open-addressing hash table from packed (i,j,k,t) keys to int values,
+ * held outside the heap in direct buffers.
+ * <p>
+ * The layout is that of {@link MemoTable}, a long key and an int value per slot with
+ * linear probing, but the slots live in pages of direct memory that the garbage
+ * collector never traces or copies. The number of slots is fixed up front from a
+ * byte budget. Once the table is full, a new sub-problem replaces the entry in its
+ * home slot, so the table keeps caching the recent sub-problems like a direct-mapped
+ * cache. Slots never become empty again, so the probe chains of other keys stay
+ * intact and a replaced entry just reads as missing.
+ * <p>
+ * The pages are freed on {@link #close()}, rather than whenever the garbage
+ * collector gets to the buffers.
+ * <p>
+ * Keys are stored plus one, so the zeroed memory of a new buffer reads as empty.
+ * Only non-negative values can be stored, {@link #get} returns -1 for missing entries.
+ */
+public class OffHeapMemoTable {
+
+    /**
+     * Bytes per slot: the key and the value
+     */
+    public static final int SLOT_BYTES = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Replace entries once the table is this full (in 1/256th)
+     */
+    private static final int MAX_LOAD = 192;
+
+    /**
+     * Slots per page, so no page gets near the 2 GB limit of a buffer
+     */
+    private static final int PAGE_BITS = 20;
+
+    private final ByteBuffer[] pages;
+    private final int pageMask;
+
+    private final int mask;
+    private final int threshold;
+    private int size;
+    private long replaced;
+
+    /**
+     * Number of bits used for each of i, j and k in a packed key, see
+     * {@link PackedKeyTable#indexBits}
+     */
+    private final int indexBits;
+
+    /**
+     * Create a memo for a problem with n jobs, taking at most budgetBytes of direct
+     * memory, rounded down to a power of two slots.
+     */
+    public OffHeapMemoTable(int n, long budgetBytes) {
+        indexBits = PackedKeyTable.indexBits(n);
+
+        long slots = Math.max(1 << 10, Long.highestOneBit(budgetBytes / SLOT_BYTES));
+        if (slots > 1L << 30)
+            throw new IllegalArgumentException("Budget too large for one table: " + budgetBytes);
+
+        int capacity = (int) slots;
+        int pageSlots = Math.min(capacity, 1 << PAGE_BITS);
+
+        pages = new ByteBuffer[capacity / pageSlots];
+        for (int x = 0; x < pages.length; x++)
+            pages[x] = ByteBuffer.allocateDirect(pageSlots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+
+        pageMask = pageSlots - 1;
+        mask = capacity - 1;
+        threshold = (int) ((long) capacity * MAX_LOAD >>> 8);
+    }
+
+    /**
+     * Return the value of problem (i,j,k,t) or -1 if not available.
+     */
+    public int get(int i, int j, int k, int t) {
+        long key = PackedKeyTable.key(i, j, k, t, indexBits);
+        int slot = MemoTable.slot(key, mask);
+
+        while (true) {
+            ByteBuffer page = pages[slot >>> PAGE_BITS];
+            int offset = (slot & pageMask) * SLOT_BYTES;
+            long current = page.getLong(offset) - 1;
+
+            if (current == key)
+                return page.getInt(offset + Long.BYTES);
+            if (current < 0)
+                return -1;
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Save the value of problem (i,j,k,t), replacing any previous value. Once the
+     * table is full, a new entry replaces the one in its home slot.
+     */
+    public void set(int i, int j, int k, int t, int value) {
+        long key = PackedKeyTable.key(i, j, k, t, indexBits);
+        int home = MemoTable.slot(key, mask);
+        int slot = home;
+
+        while (true) {
+            ByteBuffer page = pages[slot >>> PAGE_BITS];
+            int offset = (slot & pageMask) * SLOT_BYTES;
+            long current = page.getLong(offset) - 1;
+
+            if (current == key) {
+                page.putInt(offset + Long.BYTES, value);
+                return;
+            }
+            if (current < 0) {
+                if (size >= threshold) {
+                    page = pages[home >>> PAGE_BITS];
+                    offset = (home & pageMask) * SLOT_BYTES;
+                    replaced++;
+                } else {
+                    size++;
+                }
+
+                page.putLong(offset, key + 1);
+                page.putInt(offset + Long.BYTES, value);
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * The number of stored entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The number of entries replaced by new ones because the table was full
+     */
+    public long replaced() {
+        return replaced;
+    }
+
+    /**
+     * Direct memory taken by the table in bytes, whatever its fill.
+     */
+    public long bytes() {
+        return (long) (mask + 1) * SLOT_BYTES;
+    }
+
+    /**
+     * Unpack the i, j and k parts of a key passed to {@link #forEach}.
+     */
+    public int keyI(long key) {
+        return PackedKeyTable.keyI(key, indexBits);
+    }
+
+    public int keyJ(long key) {
+        return PackedKeyTable.keyJ(key, indexBits);
+    }
+
+    public int keyK(long key) {
+        return PackedKeyTable.keyK(key, indexBits);
+    }
+
+    /**
+     * Visit all entries in table order.
+     */
+    public void forEach(MemoTable.EntryVisitor visitor) {
+        for (int slot = 0; slot <= mask; slot++) {
+            ByteBuffer page = pages[slot >>> PAGE_BITS];
+            int offset = (slot & pageMask) * SLOT_BYTES;
+            long key = page.getLong(offset) - 1;
+
+            if (key >= 0)
+                visitor.visit(key, page.getInt(offset + Long.BYTES));
+        }
+    }
+
+    /**
+     * Free the pages. The table cannot be used afterwards.
+     */
+    public void close() {
+        for (int x = 0; x < pages.length; x++) {
+            if (pages[x] != null)
+                free(pages[x]);
+            pages[x] = null;
+        }
+    }
+
+    public boolean isClosed() {
+        return pages[0] == null;
+    }
+
+    /**
+     * Release the memory of a direct buffer now, through the cleaner that would
+     * otherwise run once the buffer is collected. The buffer must not be used
+     * afterwards. Without access to the cleaner, the memory is left to the collector.
+     */
+    static void free(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(field.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Freed once unreachable
+        }
+    }
+}
@@ -0,0 +1,352 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Rolling-horizon scheduling of a stream of jobs on one machine.
+ * <p>
+ * Jobs arrive as lines "release processing deadline", in order of release time, from
+ * a file or stdin. Whenever the machine is free, the released jobs with the WINDOW
+ * earliest deadlines are solved exactly from the current time, and the first job of
+ * that schedule is dispatched. Dispatched jobs form the committed prefix and are never
+ * reconsidered; the rest of the window is solved again at the next decision, with any
+ * jobs released in the meantime.
+ * <p>
+ * Every decision gets a wall-clock budget. A solve that runs out of it dispatches the
+ * earliest deadline of the window instead. Decisions are printed as they are made as
+ * "job start end tardiness", and throughput and decision latencies at the end.
+ * <p>
+ * To decide at time t all jobs released up to t must be known, so a decision waits
+ * for the first line with a later release time, or the end of the stream.
+ */
+public class OnlineScheduler {
+
+    public static final String[] SOLVERS = {"DynamicSequence", "Dynamic"};
+
+    private static final int DEFAULT_WINDOW = 12;
+    private static final long DEFAULT_BUDGET_MILLIS = 50;
+
+    /**
+     * With follow, wait this long for more lines at the end of a file
+     */
+    private static final long FOLLOW_MILLIS = 100;
+
+    /**
+     * A line of this text ends the stream, also when following
+     */
+    private static final String END = "end";
+
+    /**
+     * Latency histogram buckets per power of two, for percentiles within 1/16
+     */
+    private static final int SUB_BUCKETS = 16;
+
+    /**
+     * One job of the stream, numbered in arrival order
+     */
+    static class Job {
+        int id;
+        int release;
+        int p;
+        int d;
+    }
+
+    private final BufferedReader in;
+    private final boolean follow;
+    private final PrintStream out;
+
+    private final int window;
+    private final String solver;
+    private final long budgetNanos;
+
+    /**
+     * The next job read but not yet released, or null
+     */
+    private Job next;
+    private boolean ended;
+    private int arrived;
+
+    /**
+     * Released jobs not yet dispatched, by deadline
+     */
+    private final TreeSet<Job> pending = new TreeSet<>((a, b) -> a.d != b.d ? Integer.compare(a.d, b.d) :
+            Integer.compare(a.id, b.id));
+
+    private int now;
+
+    private long totalTardiness;
+    private int dispatched;
+    private int fallbacks;
+
+    /**
+     * Decision latencies in nanoseconds, bucketed by {@link #bucket}
+     */
+    private final long[] latencies = new long[64 * SUB_BUCKETS];
+    private long maxLatency;
+
+    public OnlineScheduler(BufferedReader in, boolean follow, PrintStream out, int window, String solver,
+                           long budgetMillis) {
+        this.in = in;
+        this.follow = follow;
+        this.out = out;
+        this.window = window;
+        this.solver = solver;
+        this.budgetNanos = budgetMillis * 1000000;
+    }
+
+    /**
+     * Schedule the whole stream.
+     */
+    public void run() throws Exception {
+        read();
+
+        while (true) {
+            // Release every job up to now, reading until the first later one
+            while (next != null && next.release <= now) {
+                pending.add(next);
+                read();
+            }
+
+            if (pending.isEmpty()) {
+                if (next == null)
+                    break;
+
+                // Idle until the next release
+                now = next.release;
+                continue;
+            }
+
+            long t0 = System.nanoTime();
+            Job job = decide();
+            record(System.nanoTime() - t0);
+
+            pending.remove(job);
+            int end = now + job.p;
+            int tardiness = Math.max(0, end - job.d);
+
+            out.println(job.id + " " + now + " " + end + " " + tardiness);
+
+            totalTardiness += tardiness;
+            dispatched++;
+            now = end;
+        }
+    }
+
+    /**
+     * Pick the job to start now from the window of earliest deadlines.
+     */
+    private Job decide() throws Exception {
+        Job[] candidates = new Job[Math.min(window, pending.size())];
+        Iterator<Job> iterator = pending.iterator();
+        for (int x = 0; x < candidates.length; x++)
+            candidates[x] = iterator.next();
+
+        if (candidates.length == 1)
+            return candidates[0];
+
+        long deadline = System.nanoTime() + budgetNanos;
+
+        try {
+            return solver.equals("Dynamic") ? decideDynamic(candidates, deadline) :
+                    decideSequence(candidates, deadline);
+        } catch (TimeoutException e) {
+            fallbacks++;
+            return candidates[0];
+        }
+    }
+
+    /**
+     * The first job of the optimal sequence of the window.
+     */
+    private Job decideSequence(Job[] candidates, long deadline) throws Exception {
+        float[][] jobs = new float[candidates.length][];
+        for (int x = 0; x < candidates.length; x++)
+            jobs[x] = new float[]{candidates[x].p, relativeDeadline(candidates[x], 0)};
+        float[][] rows = jobs.clone();
+
+        DynamicSequence dynamic = new DynamicSequence(jobs, true);
+        dynamic.setDeadline(deadline);
+
+        // The sequence indexes jobs as sorted in place, so find its first row by identity
+        float[] first = jobs[dynamic.calculateSequence()[0]];
+        for (int x = 0; x < rows.length; x++)
+            if (rows[x] == first)
+                return candidates[x];
+
+        throw new IllegalStateException("Sequence starts with an unknown job");
+    }
+
+    /**
+     * The job whose tardiness plus the optimal tardiness of the others after it is
+     * lowest, with one {@link Dynamic} solve per candidate. Ties go to the earliest
+     * deadline.
+     */
+    private Job decideDynamic(Job[] candidates, long deadline) throws Exception {
+        Job best = null;
+        long bestTardiness = Long.MAX_VALUE;
+
+        for (Job first : candidates) {
+            int[][] rest = new int[candidates.length - 1][];
+            int y = 0;
+            long passed = 0;
+            for (Job job : candidates) {
+                if (job != first) {
+                    rest[y++] = new int[]{job.p, relativeDeadline(job, first.p)};
+                    passed += Math.max(0, now + first.p - job.d);
+                }
+            }
+
+            Dynamic dynamic = new Dynamic(new ProblemInstance(rest.length, rest));
+            dynamic.setDeadline(deadline);
+
+            // Add back what clamping took off, which differs per candidate
+            long tardiness = Math.max(0, now + first.p - first.d) + passed + (long) dynamic.calculateTardiness();
+            if (tardiness < bestTardiness) {
+                bestTardiness = tardiness;
+                best = first;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * The deadline of a job relative to a start offset after now. A deadline already
+     * passed adds the same amount to every schedule from that offset, so it is clamped
+     * to 0.
+     */
+    private int relativeDeadline(Job job, int offset) {
+        return Math.max(0, job.d - now - offset);
+    }
+
+    /**
+     * Read the next job into next, or set it to null at the end of the stream.
+     */
+    private void read() throws IOException, InterruptedException {
+        next = null;
+
+        while (!ended) {
+            String line = in.readLine();
+
+            if (line == null) {
+                if (!follow) {
+                    ended = true;
+                    break;
+                }
+                Thread.sleep(FOLLOW_MILLIS);
+                continue;
+            }
+
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            if (line.equals(END)) {
+                ended = true;
+                break;
+            }
+
+            String[] parts = line.split("\\s+");
+            Job job = new Job();
+            job.id = arrived++;
+            job.release = Integer.parseInt(parts[0]);
+            job.p = Integer.parseInt(parts[1]);
+            job.d = Integer.parseInt(parts[2]);
+
+            next = job;
+            break;
+        }
+    }
+
+    /**
+     * Throughput, latency percentiles and the schedule's tardiness
+     */
+    public String summary(long wallNanos) {
+        return String.format("%d jobs in %d ms, %.0f jobs/s, total tardiness %d, %d fallbacks%n"
+                        + "decision latency us: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f",
+                dispatched, wallNanos / 1000000, dispatched * 1e9 / wallNanos, totalTardiness, fallbacks,
+                percentile(0.5), percentile(0.9), percentile(0.99), maxLatency / 1000.0);
+    }
+
+    private void record(long nanos) {
+        latencies[bucket(nanos)]++;
+        maxLatency = Math.max(maxLatency, nanos);
+    }
+
+    /**
+     * Values below SUB_BUCKETS get a bucket each, larger ones SUB_BUCKETS per power of two
+     */
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int) Math.max(0, nanos);
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+        return (exponent - 3) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * The smallest latency in a bucket
+     */
+    private static long bucketStart(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        int exponent = bucket / SUB_BUCKETS + 3;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 4);
+    }
+
+    /**
+     * The latency in microseconds below which the fraction of decisions fall, to the
+     * start of its bucket
+     */
+    private double percentile(double fraction) {
+        long total = 0;
+        for (long count : latencies)
+            total += count;
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < latencies.length; bucket++) {
+            seen += latencies[bucket];
+            if (seen >= rank)
+                return Math.min(bucketStart(bucket), maxLatency) / 1000.0;
+        }
+        return maxLatency / 1000.0;
+    }
+
+    public static void main(String args[]) {
+
+        if (args.length < 1 || args.length > 5) {
+            System.out.println("Usage: path/to/jobs.txt|- [window] [solver] [budgetMillis] [follow]");
+            System.out.println("  where each line holds: release processing deadline");
+            System.out.println("  solver one of " + String.join(", ", SOLVERS) + ", and follow = 0|1");
+            System.out.println("  to keep reading at the end of the file until a line '" + END + "'");
+            return;
+        }
+
+        int window = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_WINDOW;
+        String solver = args.length > 2 ? args[2] : SOLVERS[0];
+        long budgetMillis = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_BUDGET_MILLIS;
+        boolean follow = args.length > 4 && args[4].equals("1");
+
+        try (BufferedReader in = new BufferedReader(args[0].equals("-") ?
+                new InputStreamReader(System.in) : new FileReader(args[0]))) {
+
+            OnlineScheduler scheduler = new OnlineScheduler(in, follow, System.out, window, solver,
+                    budgetMillis);
+
+            long t0 = System.nanoTime();
+            scheduler.run();
+            System.err.println(scheduler.summary(System.nanoTime() - t0));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
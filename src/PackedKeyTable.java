@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+/**
+ * The keys of a primitive open-addressing hash table over packed (i,j,k,t) keys,
+ * shared by {@link MemoTable} and {@link LongMemoTable}, which keep their values in
+ * an array parallel to the keys. The static key packing is also used by
+ * {@link OffHeapMemoTable}.
+ * <p>
+ * Collisions are resolved by linear probing in a power-of-two table that doubles
+ * when it gets too full. Removal shifts later entries of the probe sequence back,
+ * so no tombstones are left. Moving a value between slots is left to the subclass
+ * through a {@link SlotMover}.
+ */
+abstract class PackedKeyTable {
+
+    /**
+     * Marker for an unused slot. Packed keys are always non-negative.
+     */
+    static final long EMPTY = -1L;
+
+    /**
+     * Grow once the table is this full (in 1/256th)
+     */
+    private static final int MAX_LOAD = 192;
+
+    long[] keys;
+
+    int mask;
+    int size;
+    private int threshold;
+
+    PackedKeyTable(int capacity) {
+        allocateKeys(capacity);
+    }
+
+    /**
+     * The slot of a key, or the empty slot where it would go.
+     */
+    final int slotOf(long key) {
+        int slot = slot(key, mask);
+
+        while (true) {
+            long current = keys[slot];
+
+            if (current == key || current == EMPTY)
+                return slot;
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Take the empty slot found for a key, after its value was written there, and
+     * grow once the table gets too full.
+     */
+    final void claim(int slot, long key) {
+        keys[slot] = key;
+
+        if (++size > threshold)
+            resize(keys.length << 1);
+    }
+
+    /**
+     * Empty a used slot, shifting later entries of the probe sequence back.
+     */
+    final void release(int slot, SlotMover mover) {
+        int gap = slot;
+
+        for (int x = (gap + 1) & mask; keys[x] != EMPTY; x = (x + 1) & mask) {
+            int home = slot(keys[x], mask);
+
+            // Move x into the gap unless its home slot lies between the gap and x
+            if (((x - home) & mask) >= ((x - gap) & mask)) {
+                keys[gap] = keys[x];
+                mover.move(x, gap);
+                gap = x;
+            }
+        }
+
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    /**
+     * Reallocate the keys at the given capacity and reinsert the old ones. The mover
+     * copies a value from its slot in the old values to its slot in the new.
+     */
+    final void rehash(int capacity, SlotMover mover) {
+        long[] oldKeys = keys;
+
+        allocateKeys(capacity);
+
+        for (int x = 0; x < oldKeys.length; x++) {
+            long key = oldKeys[x];
+            if (key == EMPTY)
+                continue;
+
+            int slot = slot(key, mask);
+            while (keys[slot] != EMPTY)
+                slot = (slot + 1) & mask;
+
+            keys[slot] = key;
+            mover.move(x, slot);
+        }
+    }
+
+    /**
+     * Grow the table to the given capacity, values and all, see {@link #rehash}.
+     */
+    abstract void resize(int capacity);
+
+    /**
+     * The number of stored entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The number of slots currently allocated
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Remove all entries but keep the allocated slots.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * The number of bits used for each of i, j and k in a packed key for n jobs.
+     * The remaining low bits hold t.
+     */
+    static int indexBits(int n) {
+        int indexBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1)));
+
+        if (timeBits(indexBits) < 16)
+            throw new IllegalArgumentException("Too many jobs to pack a key: " + n);
+
+        return indexBits;
+    }
+
+    static int timeBits(int indexBits) {
+        return 63 - 3 * indexBits;
+    }
+
+    /**
+     * Pack a sub-problem (i,j,k,t) into a single non-negative long.
+     */
+    static long key(int i, int j, int k, int t, int indexBits) {
+        int timeBits = timeBits(indexBits);
+        if (timeBits < 31 && t >>> timeBits != 0)
+            throw new IllegalArgumentException("Start time does not fit a key: " + t);
+
+        return ((((long) i << indexBits | j) << indexBits | k) << timeBits) | t;
+    }
+
+    /**
+     * Unpack the i, j, k and t parts of a packed key.
+     */
+    static int keyI(long key, int indexBits) {
+        return (int) (key >>> (timeBits(indexBits) + 2 * indexBits));
+    }
+
+    static int keyJ(long key, int indexBits) {
+        return (int) (key >>> (timeBits(indexBits) + indexBits)) & ((1 << indexBits) - 1);
+    }
+
+    static int keyK(long key, int indexBits) {
+        return (int) (key >>> timeBits(indexBits)) & ((1 << indexBits) - 1);
+    }
+
+    static int keyT(long key, int indexBits) {
+        return (int) (key & ((1L << timeBits(indexBits)) - 1));
+    }
+
+    /**
+     * Spread the bits of a key over the table (finalizer of MurmurHash3).
+     */
+    static int slot(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private void allocateKeys(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        mask = capacity - 1;
+        threshold = (int) ((long) capacity * MAX_LOAD >>> 8);
+    }
+
+    /**
+     * Moves a value from one slot to another
+     */
+    interface SlotMover {
+        void move(int from, int to);
+    }
+}
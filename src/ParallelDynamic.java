@@ -0,0 +1,347 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lawler's Minimum Tardiness algorithm, spread over a {@link ForkJoinPool}.
+ * <p>
+ * The left and right sub-problems of every position of k' are independent, so
+ * the larger one of each is forked as a separate task and the smaller one solved
+ * by the forking thread. Unlike {@link JobList}, which is changed in
+ * place, every task works on its own immutable {@link JobSet} and all tasks share
+ * one {@link ConcurrentMemoTable}.
+ */
+public class ParallelDynamic {
+
+    /**
+     * Sub-problems with at most this many jobs are solved on the current thread.
+     * Smaller tasks cost more to create and fork than they save.
+     */
+    public static final int DEFAULT_THRESHOLD = 32;
+
+    /**
+     * The original problem data
+     */
+    private int[][] jobs;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Sub-problems of this size or smaller are not split into new tasks
+     */
+    private int threshold;
+
+    /**
+     * Store all calculated results for sub-problems (i,j,k,t)
+     */
+    private ConcurrentMemoTable store;
+
+    public ParallelDynamic(ProblemInstance instance) {
+        this(instance, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelDynamic(ProblemInstance instance, ForkJoinPool pool, int threshold) {
+
+        jobs = instance.getJobs();
+        store = new ConcurrentMemoTable(jobs.length, 4 * pool.getParallelism());
+
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+
+        Arrays.sort(jobs, new SortByDeadline()); // O(n log n)
+    }
+
+    public int calculateTardiness() {
+
+        // Create a set of all jobs
+        int[] all = new int[jobs.length];
+        int totalP = 0;
+        for (int x = 0; x < jobs.length; x++) {
+            all[x] = x;
+            totalP += jobs[x][0];
+        }
+
+        return pool.invoke(new SubproblemTask(new JobSet(all, 0, all.length, totalP), 0));
+    }
+
+    /**
+     * Given a set of jobs and a starting time t, calculate the minimum tardiness
+     * on the current thread.
+     */
+    private int calculateTardiness(JobSet set, int t) {
+
+        // Base case: empty set
+        if (set.length() == 0)
+            return 0;
+
+        // Base case: single element
+        if (set.length() == 1)
+            return Math.max(0, t + jobs[set.first()][0] - jobs[set.first()][1]);
+
+        int kPrime = set.maxP(); // Runs O(n)
+
+        // Check whether this sub-problem has been calculated before
+        int res = store.get(set.first(), set.last(), kPrime, t);
+        if (res >= 0)
+            return res;
+
+        Split split = new Split(set, kPrime);
+        int lowestTardiness = Integer.MAX_VALUE;
+
+        for (int d = 0; d <= split.maxDelta(); d++) {
+            if (!split.feasible(d, t))
+                continue;
+
+            JobSet left = split.left(d);
+            JobSet right = split.right(d);
+
+            int kPrimeDone = t + left.totalP + jobs[kPrime][0];
+
+            int total = calculateTardiness(left, t)
+                    + Math.max(0, kPrimeDone - jobs[kPrime][1])
+                    + calculateTardiness(right, kPrimeDone);
+
+            if (total < lowestTardiness)
+                lowestTardiness = total;
+        }
+
+        store.set(set.first(), set.last(), kPrime, t, lowestTardiness);
+
+        return lowestTardiness;
+    }
+
+    /**
+     * Solve a sub-problem on the current thread, splitting it into tasks if it is
+     * larger than the threshold.
+     */
+    private int solve(JobSet set, int t) {
+        return set.length() <= threshold ? calculateTardiness(set, t) : new SubproblemTask(set, t).compute();
+    }
+
+    /**
+     * Solve a sub-problem. For every position of k' the larger of the left and right
+     * problems is forked, unless it is small or already solved, and the smaller one
+     * is solved on the current thread while other workers steal the forked ones.
+     */
+    class SubproblemTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final JobSet set;
+        private final int t;
+
+        private final int kPrime;
+
+        SubproblemTask(JobSet set, int t) {
+            this.set = set;
+            this.t = t;
+
+            kPrime = set.maxP();
+        }
+
+        @Override
+        protected Integer compute() {
+            int res = store.get(set.first(), set.last(), kPrime, t);
+            if (res >= 0)
+                return res;
+
+            Split split = new Split(set, kPrime);
+            SubproblemTask[] forked = new SubproblemTask[split.maxDelta() + 1];
+
+            // Fork first, so the forked problems can be stolen while this thread works
+            for (int d = 0; d <= split.maxDelta(); d++) {
+                if (!split.feasible(d, t))
+                    continue;
+
+                JobSet left = split.left(d);
+                JobSet right = split.right(d);
+                int kPrimeDone = t + left.totalP + jobs[kPrime][0];
+
+                if (left.length() >= right.length())
+                    forked[d] = fork(left, t);
+                else
+                    forked[d] = fork(right, kPrimeDone);
+            }
+
+            int[] totals = new int[forked.length];
+            for (int d = 0; d <= split.maxDelta(); d++) {
+                if (!split.feasible(d, t))
+                    continue;
+
+                JobSet left = split.left(d);
+                JobSet right = split.right(d);
+                int kPrimeDone = t + left.totalP + jobs[kPrime][0];
+
+                totals[d] = Math.max(0, kPrimeDone - jobs[kPrime][1]);
+                if (forked[d] == null)
+                    totals[d] += solve(left, t) + solve(right, kPrimeDone);
+                else if (left.length() >= right.length())
+                    totals[d] += solve(right, kPrimeDone);
+                else
+                    totals[d] += solve(left, t);
+            }
+
+            // Join in reverse order of forking, so unstolen tasks are popped and run here
+            int lowestTardiness = Integer.MAX_VALUE;
+            for (int d = split.maxDelta(); d >= 0; d--) {
+                if (!split.feasible(d, t))
+                    continue;
+
+                int total = totals[d] + (forked[d] == null ? 0 : forked[d].join());
+                if (total < lowestTardiness)
+                    lowestTardiness = total;
+            }
+
+            store.set(set.first(), set.last(), kPrime, t, lowestTardiness);
+
+            return lowestTardiness;
+        }
+
+        /**
+         * Fork a sub-problem, or return null if it is not worth a task: small, or
+         * already in the memo.
+         * <p>
+         * A sub-problem another thread is still solving is forked again rather than
+         * joined: joining a task outside its own subtree can leave a worker blocked
+         * while the tasks it forked wait unrun in its queue.
+         */
+        private SubproblemTask fork(JobSet set, int t) {
+            if (set.length() <= threshold)
+                return null;
+
+            SubproblemTask task = new SubproblemTask(set, t);
+            if (store.get(set.first(), set.last(), task.kPrime, t) >= 0)
+                return null;
+
+            task.fork();
+            return task;
+        }
+    }
+
+    /**
+     * A set of jobs with k' taken out, which can be divided into a left
+     * and a right part for every shift delta of k'.
+     */
+    class Split {
+
+        /**
+         * The jobs of the set without k', in increasing index order
+         */
+        private final int[] others;
+
+        /**
+         * The position at which k' was removed
+         */
+        private final int position;
+
+        /**
+         * Prefix sums of processing times over `others`
+         */
+        private final int[] prefixP;
+
+        Split(JobSet set, int kPrime) {
+            others = new int[set.length() - 1];
+            prefixP = new int[others.length + 1];
+
+            int position = 0;
+            int y = 0;
+            for (int x = set.from; x < set.to; x++) {
+                int job = set.jobs[x];
+
+                if (job == kPrime) {
+                    position = y;
+                    continue;
+                }
+
+                others[y] = job;
+                prefixP[y + 1] = prefixP[y] + jobs[job][0];
+                y++;
+            }
+
+            this.position = position;
+        }
+
+        /**
+         * The number of positions k' can be moved to the right
+         */
+        int maxDelta() {
+            return others.length - position;
+        }
+
+        /**
+         * Only compute when d_x > leftComplete, for x the first element in the right part
+         */
+        boolean feasible(int d, int t) {
+            int split = position + d;
+            return split == others.length || jobs[others[split]][1] > t + prefixP[split];
+        }
+
+        JobSet left(int d) {
+            int split = position + d;
+            return new JobSet(others, 0, split, prefixP[split]);
+        }
+
+        JobSet right(int d) {
+            int split = position + d;
+            return new JobSet(others, split, others.length, prefixP[others.length] - prefixP[split]);
+        }
+    }
+
+    /**
+     * An immutable view of a range of job indices (in increasing index order).
+     * Views may share their backing array since it is never written after creation.
+     */
+    class JobSet {
+
+        final int[] jobs;
+        final int from;
+        final int to;
+
+        /**
+         * Total processing time of all jobs in the set
+         */
+        final int totalP;
+
+        JobSet(int[] jobs, int from, int to, int totalP) {
+            this.jobs = jobs;
+            this.from = from;
+            this.to = to;
+            this.totalP = totalP;
+        }
+
+        int length() {
+            return to - from;
+        }
+
+        int first() {
+            return jobs[from];
+        }
+
+        int last() {
+            return jobs[to - 1];
+        }
+
+        /**
+         * The first job with the largest processing time.
+         * Runs O(n)
+         */
+        int maxP() {
+            int k = jobs[from];
+            for (int x = from + 1; x < to; x++)
+                if (ParallelDynamic.this.jobs[jobs[x]][0] > ParallelDynamic.this.jobs[k][0])
+                    k = jobs[x];
+            return k;
+        }
+    }
+
+    /**
+     * Sort the 2D jobs array by deadline (2nd element of each pair)
+     */
+    class SortByDeadline implements Comparator<int[]> {
+        public int compare(int[] a, int[] b) {
+            return a[1] - b[1];
+        }
+    }
+
+}
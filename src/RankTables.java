@@ -0,0 +1,231 @@
+import java.util.Arrays;
+
+/**
+ * Precomputed tables that describe every Lawler sub-problem by indices alone.
+ * <p>
+ * Jobs are ranked by processing time, ties broken by decreasing index, so the job
+ * with the highest rank in a set is exactly the one {@link JobList#extractMaxP()}
+ * would pick. Every sub-problem the recursion creates is then the set of jobs with
+ * an index in [i..j] and a rank below some bound r, and all facts the recursion needs
+ * about such a set come from table lookups:
+ * <ul>
+ *     <li>its first and last job: {@link #first} and {@link #last}</li>
+ *     <li>its job with the largest processing time: {@link #maxP}</li>
+ *     <li>its total processing time: {@link #totalP}</li>
+ * </ul>
+ * Every table has a row per rank bound r, so the memory is quadratic in n. Job
+ * indices and ranks are kept as chars, plus one where they can be -1, and only the
+ * prefix sums of processing times take ints:
+ * <ul>
+ *     <li>prefix sums: 4(n+1)^2 bytes</li>
+ *     <li>successor and predecessor tables: 2(n+1)^2 bytes each</li>
+ *     <li>range maxima within blocks of 32 jobs: 4(n+1)n bytes</li>
+ *     <li>a sparse table over whole blocks: 2(n+1)(n/32)log(n/32) bytes</li>
+ * </ul>
+ * That is about 12 n^2 bytes, 300 MB for 5000 jobs. Tables of more than
+ * MAX_JOBS jobs would not fit an array.
+ */
+public class RankTables {
+
+    /**
+     * The largest n for which (n+1)^2 cells still fit an array
+     */
+    public static final int MAX_JOBS = 46339;
+
+    private final int n;
+
+    /**
+     * Processing time and deadline by job index (increasing deadline order)
+     */
+    final int[] p;
+    final int[] d;
+
+    /**
+     * rank[x] is the rank of job x, byRank[r] the job with rank r
+     */
+    final int[] rank;
+    final int[] byRank;
+
+    /**
+     * prefixP[r][x]: total processing time of the jobs with rank below r and index below x
+     */
+    private final int[] prefixP;
+
+    /**
+     * succ[r][x]: first job with index at least x and rank below r, or n if none
+     */
+    private final char[] succ;
+
+    /**
+     * pred[r][x]: one more than the last job with index at most x and rank below r,
+     * or 0 if none
+     */
+    private final char[] pred;
+
+    /**
+     * Jobs per block of the range-maximum tables
+     */
+    private static final int BLOCK_BITS = 5;
+
+    /**
+     * inPrefix[r][x] and inSuffix[r][x]: one more than the highest rank below r among
+     * the jobs from the start of x's block up to x, and from x up to the end of its
+     * block, or 0 if none
+     */
+    private final char[] inPrefix;
+    private final char[] inSuffix;
+
+    /**
+     * sparse[r][l][b]: one more than the highest rank below r among the blocks
+     * [b, b + 2^l), or 0 if none
+     */
+    private final char[] sparse;
+    private final int blocks;
+    private final int levels;
+
+    /**
+     * Build the tables for a jobs array sorted by deadline.
+     * Runs O(n^2), plus O(n^2 log(n) / 32) for the sparse table
+     */
+    public RankTables(int[][] jobs) {
+        n = jobs.length;
+        if (n > MAX_JOBS)
+            throw new IllegalArgumentException("Too many jobs for rank tables: " + n);
+
+        p = new int[n];
+        d = new int[n];
+        for (int x = 0; x < n; x++) {
+            p[x] = jobs[x][0];
+            d[x] = jobs[x][1];
+        }
+
+        // Rank by processing time, ties broken by decreasing index
+        Integer[] order = new Integer[n];
+        for (int x = 0; x < n; x++)
+            order[x] = x;
+        Arrays.sort(order, (a, b) -> p[a] != p[b] ? p[a] - p[b] : b - a);
+
+        rank = new int[n];
+        byRank = new int[n];
+        for (int r = 0; r < n; r++) {
+            byRank[r] = order[r];
+            rank[order[r]] = r;
+        }
+
+        int width = n + 1;
+
+        prefixP = new int[width * width];
+        for (int r = 0; r < n; r++) {
+            int job = byRank[r];
+            for (int x = 0; x <= n; x++)
+                prefixP[(r + 1) * width + x] = prefixP[r * width + x] + (x > job ? p[job] : 0);
+        }
+
+        succ = new char[width * width];
+        pred = new char[width * n];
+        for (int r = 0; r <= n; r++) {
+            succ[r * width + n] = (char) n;
+            for (int x = n - 1; x >= 0; x--)
+                succ[r * width + x] = rank[x] < r ? (char) x : succ[r * width + x + 1];
+
+            char last = 0;
+            for (int x = 0; x < n; x++) {
+                if (rank[x] < r)
+                    last = (char) (x + 1);
+                pred[r * n + x] = last;
+            }
+        }
+
+        blocks = (n + (1 << BLOCK_BITS) - 1) >> BLOCK_BITS;
+        levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, blocks));
+
+        inPrefix = new char[width * n];
+        inSuffix = new char[width * n];
+        sparse = new char[width * levels * blocks];
+
+        for (int r = 0; r <= n; r++) {
+            for (int x = 0; x < n; x++) {
+                char value = rank[x] < r ? (char) (rank[x] + 1) : 0;
+                boolean blockStart = (x & ((1 << BLOCK_BITS) - 1)) == 0;
+                inPrefix[r * n + x] = blockStart ? value : (char) Math.max(value, inPrefix[r * n + x - 1]);
+            }
+
+            for (int x = n - 1; x >= 0; x--) {
+                char value = rank[x] < r ? (char) (rank[x] + 1) : 0;
+                boolean blockEnd = x == n - 1 || ((x + 1) & ((1 << BLOCK_BITS) - 1)) == 0;
+                inSuffix[r * n + x] = blockEnd ? value : (char) Math.max(value, inSuffix[r * n + x + 1]);
+            }
+
+            int base = r * levels * blocks;
+
+            for (int b = 0; b < blocks; b++)
+                sparse[base + b] = inSuffix[r * n + (b << BLOCK_BITS)];
+
+            for (int l = 1; l < levels; l++) {
+                int half = 1 << (l - 1);
+                for (int b = 0; b + (1 << l) <= blocks; b++)
+                    sparse[base + l * blocks + b] = (char) Math.max(
+                            sparse[base + (l - 1) * blocks + b],
+                            sparse[base + (l - 1) * blocks + b + half]);
+            }
+        }
+    }
+
+    /**
+     * The number of jobs
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * First job with index at least x and rank below r, or n if none
+     */
+    public int first(int x, int r) {
+        return succ[r * (n + 1) + x];
+    }
+
+    /**
+     * Last job with index at most x and rank below r, or -1 if none
+     */
+    public int last(int x, int r) {
+        return pred[r * n + x] - 1;
+    }
+
+    /**
+     * The job with the highest rank below r in the range [i..j], which must not be empty.
+     */
+    public int maxP(int i, int j, int r) {
+        int bi = i >> BLOCK_BITS;
+        int bj = j >> BLOCK_BITS;
+        int max = -1;
+
+        if (bi == bj) {
+            // Both ends in one block: scan it
+            for (int x = i; x <= j; x++)
+                if (rank[x] < r && rank[x] > max)
+                    max = rank[x];
+
+            return byRank[max];
+        }
+
+        max = Math.max(inSuffix[r * n + i], inPrefix[r * n + j]);
+
+        if (bj - bi > 1) {
+            int l = 31 - Integer.numberOfLeadingZeros(bj - bi - 1);
+            int base = r * levels * blocks + l * blocks;
+
+            max = Math.max(max, Math.max(sparse[base + bi + 1], sparse[base + bj - (1 << l)]));
+        }
+
+        // The tables hold ranks plus one
+        return byRank[max - 1];
+    }
+
+    /**
+     * Total processing time of the jobs with rank below r and index in [i, x)
+     */
+    public int totalP(int i, int x, int r) {
+        return prefixP[r * (n + 1) + x] - prefixP[r * (n + 1) + i];
+    }
+}
@@ -0,0 +1,263 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of solved instances, keyed by their content.
+ * <p>
+ * The key is the solver, with its parameters, plus the jobs sorted by deadline and
+ * then processing time, so any permutation of the same jobs hits the same entry.
+ * Entries keep these canonical jobs, so a hash collision is never taken for a hit.
+ * <p>
+ * Entries are evicted least recently used first once their estimated size exceeds
+ * the byte budget. With a directory, every entry is also written to disk and misses
+ * in memory are looked up there before solving.
+ */
+public class ResultCache {
+
+    /**
+     * Solve an instance to its tardiness
+     */
+    public interface Solver {
+        int solve(ProblemInstance instance) throws Exception;
+    }
+
+    /**
+     * A cached result with the canonical jobs it belongs to
+     */
+    static class Entry {
+        String solver;
+        int[] jobs;
+        int tardiness;
+
+        long bytes() {
+            return 64 + 2L * solver.length() + 4L * jobs.length;
+        }
+    }
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long maxBytes;
+    private long bytes;
+
+    /**
+     * Directory of the on-disk store, or null
+     */
+    private final Path dir;
+
+    private long hits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+
+    public ResultCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * @param dir Directory to keep all entries in, or null for memory only
+     */
+    public ResultCache(long maxBytes, Path dir) {
+        this.maxBytes = maxBytes;
+        this.dir = dir;
+    }
+
+    public int dynamic(ProblemInstance instance) throws Exception {
+        return tardiness("Dynamic", instance, i -> new Dynamic(i).calculateTardiness());
+    }
+
+    public int dynamicSequence(ProblemInstance instance) throws Exception {
+        return tardiness("DynamicSequence", instance, i -> {
+            int[][] jobs = i.getJobs();
+            float[][] floats = new float[jobs.length][];
+            for (int x = 0; x < jobs.length; x++)
+                floats[x] = new float[]{jobs[x][0], jobs[x][1]};
+            return (int) new DynamicSequence(floats).calculateTardiness();
+        });
+    }
+
+    public int approx(ProblemInstance instance, float epsilon) throws Exception {
+        return tardiness("Approx:" + epsilon, instance, i -> new Approx(i, epsilon).calculateTardiness());
+    }
+
+    /**
+     * Return the cached tardiness of the instance under the named solver, or solve it
+     * and cache the result. The solver and the disk run outside the lock, so two
+     * threads may solve the same instance at once.
+     */
+    public int tardiness(String solver, ProblemInstance instance, Solver solve) throws Exception {
+        int[] jobs = canonical(instance);
+        long key = hash(solver, jobs);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (matches(entry, solver, jobs)) {
+                hits++;
+                return entry.tardiness;
+            }
+        }
+
+        Entry entry = readDisk(key, solver, jobs);
+        if (entry != null) {
+            synchronized (this) {
+                diskHits++;
+                put(key, entry);
+            }
+            return entry.tardiness;
+        }
+
+        synchronized (this) {
+            misses++;
+        }
+
+        entry = new Entry();
+        entry.solver = solver;
+        entry.jobs = jobs;
+        entry.tardiness = solve.solve(instance);
+
+        synchronized (this) {
+            put(key, entry);
+        }
+
+        writeDisk(key, entry);
+        return entry.tardiness;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized String toString() {
+        return entries.size() + " entries, " + bytes / 1024 + " KB, " + hits + " hits, " + diskHits
+                + " disk hits, " + misses + " misses, " + evictions + " evictions";
+    }
+
+    /**
+     * The jobs as (p, d) pairs, sorted by deadline and then processing time.
+     * Runs O(n log n), does not modify the instance.
+     */
+    static int[] canonical(ProblemInstance instance) {
+        int[][] jobs = instance.getJobs();
+        int n = instance.getNumJobs();
+
+        long[] packed = new long[n];
+        for (int x = 0; x < n; x++)
+            packed[x] = (long) jobs[x][1] << 32 | (jobs[x][0] & 0xFFFFFFFFL);
+
+        // Deadlines are non-negative, so signed order on the packed longs is deadline order
+        Arrays.sort(packed);
+
+        int[] pairs = new int[2 * n];
+        for (int x = 0; x < n; x++) {
+            pairs[2 * x] = (int) packed[x];
+            pairs[2 * x + 1] = (int) (packed[x] >> 32);
+        }
+
+        return pairs;
+    }
+
+    static long hash(String solver, int[] jobs) {
+        long h = solver.hashCode() * 0x9E3779B97F4A7C15L;
+        for (int value : jobs) {
+            h = (h ^ value) * 0xff51afd7ed558ccdL;
+            h ^= h >>> 32;
+        }
+        return h;
+    }
+
+    private static boolean matches(Entry entry, String solver, int[] jobs) {
+        return entry != null && entry.solver.equals(solver) && Arrays.equals(entry.jobs, jobs);
+    }
+
+    private void put(long key, Entry entry) {
+        Entry old = entries.put(key, entry);
+        if (old != null)
+            bytes -= old.bytes();
+        bytes += entry.bytes();
+
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            if (evicted == entry)
+                break;
+
+            eldest.remove();
+            bytes -= evicted.bytes();
+            evictions++;
+        }
+    }
+
+    private Path file(long key) {
+        return dir.resolve(String.format("%016x.res", key));
+    }
+
+    private Entry readDisk(long key, String solver, int[] jobs) {
+        if (dir == null || !Files.exists(file(key)))
+            return null;
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file(key)))) {
+            Entry entry = new Entry();
+            entry.solver = in.readUTF();
+            entry.jobs = new int[in.readInt()];
+            for (int x = 0; x < entry.jobs.length; x++)
+                entry.jobs[x] = in.readInt();
+            entry.tardiness = in.readInt();
+
+            return matches(entry, solver, jobs) ? entry : null;
+        } catch (IOException e) {
+            // A damaged entry is a miss, and is overwritten once solved
+            return null;
+        }
+    }
+
+    /**
+     * Write the entry to a temporary file and move it in place, so concurrent readers
+     * and writers of the same key never see a partial file.
+     */
+    private void writeDisk(long key, Entry entry) throws IOException {
+        if (dir == null)
+            return;
+
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, String.format("%016x", key), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                out.writeUTF(entry.solver);
+                out.writeInt(entry.jobs.length);
+                for (int value : entry.jobs)
+                    out.writeInt(value);
+                out.writeInt(entry.tardiness);
+            }
+            Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -57,6 +57,17 @@ public class Schedule implements Comparable<Schedule> {
 		return tardiness;
 	}
 	
+	// returns the job IDs in the order they are scheduled
+	public int[] getSequence(){
+		int[] sequence = new int[getDepth()];
+		Schedule s = this;
+		for(int i = sequence.length - 1; i >= 0; --i){
+			sequence[i] = s.jobID;
+			s = s.previous;
+		}
+		return sequence;
+	}
+	
 	public boolean containsJob(int job){
 		return (jobID == job) || (previous != null && previous.containsJob(job));
 	}
@@ -0,0 +1,56 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one solved instance, recorded by {@link SolverStats#record}.
+ * <p>
+ * Enable with -XX:StartFlightRecording and find it under Tardiness / Solve.
+ */
+@Name("tardiness.Solve")
+@Label("Solve")
+@Category("Tardiness")
+@Description("One instance solved by Dynamic")
+public class SolveEvent extends Event {
+
+    @Label("Instance")
+    String instance;
+
+    @Label("Jobs")
+    int n;
+
+    @Label("Verdict")
+    String verdict;
+
+    @Label("Calls")
+    long calls;
+
+    @Label("Memo Hits")
+    long hits;
+
+    @Label("Memo Misses")
+    long misses;
+
+    @Label("Filtered")
+    @Description("Positions of k' skipped by the due-date filter")
+    long filtered;
+
+    @Label("Max Depth")
+    int depth;
+
+    @Label("Memo Entries")
+    long memoEntries;
+
+    @Label("Memo Buckets")
+    long memoBuckets;
+
+    @Label("Max Bucket Entries")
+    long maxBucketEntries;
+
+    @Label("Memo Size")
+    @DataAmount
+    long memoBytes;
+}
@@ -0,0 +1,39 @@
+/**
+ * The outcome of a solve with a deadline.
+ * <p>
+ * When the exact solver finished, or its bounds met, {@link #exact} is set and the
+ * tardiness is optimal. Otherwise the tardiness is that of the best heuristic
+ * schedule, an upper bound, and the optimum lies in [lowerBound, tardiness].
+ */
+public class SolveResult {
+
+    public final boolean exact;
+
+    /**
+     * The optimal tardiness if exact, otherwise the best known upper bound
+     */
+    public final int tardiness;
+
+    public final int lowerBound;
+
+    /**
+     * The heuristic schedule reaching the upper bound, or null if exact. Job indices
+     * refer to the jobs of the instance in Earliest Due Date order.
+     */
+    public final int[] sequence;
+
+    public final long millis;
+
+    public SolveResult(boolean exact, int tardiness, int lowerBound, int[] sequence, long millis) {
+        this.exact = exact;
+        this.tardiness = tardiness;
+        this.lowerBound = lowerBound;
+        this.sequence = sequence;
+        this.millis = millis;
+    }
+
+    public String toString() {
+        return exact ? tardiness + " (exact, " + millis + " ms)" :
+                "[" + lowerBound + ", " + tardiness + "] (timed out, " + millis + " ms)";
+    }
+}
@@ -0,0 +1,252 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * Throughput, latency and allocation of every solver over an instance set, measured
+ * in a warm JVM.
+ * <p>
+ * All instances are parsed before any timing starts. Every solver then runs on every
+ * instance for WARMUP_MILLIS without measuring, and for MEASURE_MILLIS with, each run
+ * on a fresh copy of the jobs as the solvers sort them in place. Allocated bytes are
+ * read from the thread's allocation counter around every run.
+ * <p>
+ * Instances can be filtered by n, RDD and TF, taken from file names like
+ * random_RDD=0.2_TF=0.4_#50, or for other names n from the file itself. Results are
+ * printed per instance and averaged per (solver, n, RDD, TF) group.
+ * <p>
+ * The JMH benchmarks in jmh/, run with gradle jmh, measure the same with forks and
+ * proper warmup. This harness is the fallback where the JMH build is not available.
+ */
+public class SolverBenchmark {
+
+    public static final String[] SOLVERS = {"Greedy", "BestFirst", "Dynamic", "DynamicSequence", "Approx"};
+
+    private static final long WARMUP_MILLIS = 200;
+    private static final long MEASURE_MILLIS = 500;
+
+    /**
+     * Runs per instance stop at this count, even within the time budget
+     */
+    private static final int MAX_RUNS = 1000;
+
+    /**
+     * BestFirst enumerates schedules, so only runs on small instances
+     */
+    static final int BEST_FIRST_MAX_N = 5;
+
+    private static final float APPROX_EPSILON = 0.1f;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * One parsed instance with its parameters and known optimum
+     */
+    static class Entry {
+        String name;
+        int[][] jobs;
+        int n;
+        String rdd = "-";
+        String tf = "-";
+        int answer;
+    }
+
+    /**
+     * Measurements of one solver on one instance
+     */
+    static class Result {
+        int runs;
+        double opsPerSecond;
+        double meanMicros;
+        double p50Micros;
+        double p99Micros;
+        long bytesPerRun;
+        int tardiness;
+    }
+
+    /**
+     * Solve a copy of the instance once with the named solver and return the tardiness.
+     */
+    public static int solve(String solver, int[][] jobs) throws Exception {
+        int[][] copy = new int[jobs.length][];
+        for (int x = 0; x < jobs.length; x++)
+            copy[x] = jobs[x].clone();
+
+        ProblemInstance instance = new ProblemInstance(copy.length, copy);
+
+        switch (solver) {
+            case "Greedy":
+                return new Greedy(instance).getSchedule().getTardiness();
+            case "BestFirst":
+                return new BestFirst(instance).getSchedule().getTardiness();
+            case "Dynamic":
+                return new Dynamic(instance).calculateTardiness();
+            case "DynamicSequence":
+                float[][] floats = new float[copy.length][];
+                for (int x = 0; x < copy.length; x++)
+                    floats[x] = new float[]{copy[x][0], copy[x][1]};
+                return (int) new DynamicSequence(floats).calculateTardiness();
+            case "Approx":
+                return new Approx(instance, APPROX_EPSILON).calculateTardiness();
+            default:
+                throw new IllegalArgumentException("Unknown solver: " + solver);
+        }
+    }
+
+    public static Result measure(String solver, Entry entry) throws Exception {
+
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1000000;
+        do {
+            solve(solver, entry.jobs);
+        } while (System.nanoTime() < warmupEnd);
+
+        long[] nanos = new long[MAX_RUNS];
+        long bytes = 0;
+        int runs = 0;
+        int tardiness = 0;
+
+        long thread = Thread.currentThread().getId();
+        long measureEnd = System.nanoTime() + MEASURE_MILLIS * 1000000;
+
+        do {
+            long b0 = THREADS.getThreadAllocatedBytes(thread);
+            long t0 = System.nanoTime();
+            tardiness = solve(solver, entry.jobs);
+            long t1 = System.nanoTime();
+            bytes += THREADS.getThreadAllocatedBytes(thread) - b0;
+
+            nanos[runs++] = t1 - t0;
+        } while (runs < MAX_RUNS && System.nanoTime() < measureEnd);
+
+        long[] sorted = Arrays.copyOf(nanos, runs);
+        Arrays.sort(sorted);
+
+        long total = 0;
+        for (long time : sorted)
+            total += time;
+
+        Result result = new Result();
+        result.runs = runs;
+        result.opsPerSecond = runs * 1e9 / total;
+        result.meanMicros = total / 1000.0 / runs;
+        result.p50Micros = sorted[(runs - 1) / 2] / 1000.0;
+        result.p99Micros = sorted[(int) Math.ceil(0.99 * runs) - 1] / 1000.0;
+        result.bytesPerRun = bytes / runs;
+        result.tardiness = tardiness;
+        return result;
+    }
+
+    /**
+     * Read an instance with its parameters. Throws an UncheckedIOException for a
+     * missing or malformed file.
+     */
+    public static Entry readEntry(String root, String name, int answer) {
+        Entry entry = new Entry();
+        entry.name = name;
+        entry.answer = answer;
+
+        ProblemInstance instance = ComputeTardiness.readInstance(root + '/' + name + ".dat");
+        entry.jobs = instance.getJobs();
+        entry.n = instance.getNumJobs();
+
+        for (String part : name.split("_")) {
+            if (part.startsWith("RDD="))
+                entry.rdd = part.substring(4);
+            else if (part.startsWith("TF="))
+                entry.tf = part.substring(3);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Whether a value matches a filter: "*" or one of a comma separated list
+     */
+    private static boolean matches(String filter, String value) {
+        return filter.equals("*") || Arrays.asList(filter.split(",")).contains(value);
+    }
+
+    public static void main(String args[]) {
+
+        if (args.length != 3 && args.length != 6) {
+            System.out.println("Usage: path/to/answer.file path/to/instance/dir solvers [n rdd tf]");
+            System.out.println("  where solvers a comma separated list of " + String.join(", ", SOLVERS));
+            System.out.println("  and n, rdd, tf comma separated lists of values or *");
+            return;
+        }
+
+        String answersFile = args[0];
+        String instanceRoot = args[1];
+        String[] solvers = args[2].split(",");
+        String nFilter = args.length == 6 ? args[3] : "*";
+        String rddFilter = args.length == 6 ? args[4] : "*";
+        String tfFilter = args.length == 6 ? args[5] : "*";
+
+        try {
+            List<Entry> entries = new ArrayList<>();
+
+            Scanner sc = new Scanner(new BufferedReader(new FileReader(answersFile)));
+            while (sc.hasNext()) {
+                String path = sc.next();
+                int ans = sc.nextInt();
+
+                Entry entry;
+                try {
+                    entry = readEntry(instanceRoot, path, ans);
+                } catch (UncheckedIOException e) {
+                    System.out.println("- Skipped: " + e.getMessage());
+                    continue;
+                }
+
+                if (matches(nFilter, Integer.toString(entry.n)) && matches(rddFilter, entry.rdd)
+                        && matches(tfFilter, entry.tf))
+                    entries.add(entry);
+            }
+            sc.close();
+
+            // Per (solver, n, RDD, TF): instances, sum of mean latency, ops/s and bytes
+            Map<String, double[]> groups = new LinkedHashMap<>();
+
+            System.out.println("solver,instance,n,rdd,tf,runs,ops/s,mean us,p50 us,p99 us,bytes/op,tardiness,optimal");
+
+            for (String solver : solvers) {
+                for (Entry entry : entries) {
+                    if (solver.equals("BestFirst") && entry.n > BEST_FIRST_MAX_N)
+                        continue;
+
+                    Result result = measure(solver, entry);
+
+                    System.out.println(String.format("%s,%s,%d,%s,%s,%d,%.1f,%.1f,%.1f,%.1f,%d,%d,%d",
+                            solver, entry.name, entry.n, entry.rdd, entry.tf, result.runs,
+                            result.opsPerSecond, result.meanMicros, result.p50Micros, result.p99Micros,
+                            result.bytesPerRun, result.tardiness, entry.answer));
+
+                    double[] group = groups.computeIfAbsent(
+                            solver + ',' + entry.n + ',' + entry.rdd + ',' + entry.tf, key -> new double[4]);
+                    group[0]++;
+                    group[1] += result.meanMicros;
+                    group[2] += result.opsPerSecond;
+                    group[3] += result.bytesPerRun;
+                }
+            }
+
+            System.out.println();
+            System.out.println("solver,n,rdd,tf,instances,mean us,ops/s,bytes/op");
+            for (Map.Entry<String, double[]> group : groups.entrySet()) {
+                double[] sums = group.getValue();
+                System.out.println(String.format("%s,%d,%.1f,%.1f,%d", group.getKey(), (int) sums[0],
+                        sums[1] / sums[0], sums[2] / sums[0], (long) (sums[3] / sums[0])));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
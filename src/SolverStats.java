@@ -0,0 +1,132 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters over all instances solved in this JVM.
+ * <p>
+ * Every {@link #record} adds the metrics of one {@link Dynamic} to the totals, which
+ * are registered as the MBean tardiness:type=SolverStats, and commits a
+ * {@link SolveEvent} to the flight recorder when that is enabled.
+ */
+public class SolverStats implements SolverStatsMBean {
+
+    private static final SolverStats INSTANCE = new SolverStats();
+
+    /**
+     * Calls per recursion depth are kept up to this depth, deeper calls count as the last
+     */
+    public static final int MAX_DEPTH = 128;
+
+    private final AtomicLong solves = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong filtered = new AtomicLong();
+    private final AtomicLong memoEntries = new AtomicLong();
+    private final AtomicLong peakMemoBytes = new AtomicLong();
+    private final AtomicLongArray callsPerDepth = new AtomicLongArray(MAX_DEPTH + 1);
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                    new ObjectName("tardiness:type=SolverStats"));
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static SolverStats get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add the metrics of a finished, or abandoned, solve.
+     */
+    public static void record(String instance, int n, String verdict, Dynamic.MetricsBag metrics) {
+        INSTANCE.solves.incrementAndGet();
+        INSTANCE.calls.addAndGet(metrics.calls);
+        INSTANCE.hits.addAndGet(metrics.hits);
+        INSTANCE.misses.addAndGet(metrics.computations);
+        INSTANCE.filtered.addAndGet(metrics.filtered);
+        INSTANCE.memoEntries.addAndGet(metrics.memoEntries);
+        INSTANCE.peakMemoBytes.accumulateAndGet(metrics.memoBytes, Math::max);
+
+        for (int depth = 0; depth < metrics.callsPerDepth.length; depth++)
+            if (metrics.callsPerDepth[depth] > 0)
+                INSTANCE.callsPerDepth.addAndGet(Math.min(depth, MAX_DEPTH), metrics.callsPerDepth[depth]);
+
+        SolveEvent event = new SolveEvent();
+        if (event.isEnabled()) {
+            event.instance = instance;
+            event.n = n;
+            event.verdict = verdict;
+            event.calls = metrics.calls;
+            event.hits = metrics.hits;
+            event.misses = metrics.computations;
+            event.filtered = metrics.filtered;
+            event.depth = metrics.depth;
+            event.memoEntries = metrics.memoEntries;
+            event.memoBuckets = metrics.memoBuckets;
+            event.maxBucketEntries = metrics.maxBucketEntries;
+            event.memoBytes = metrics.memoBytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * A summary of the totals, with calls per depth in ranges of ten.
+     */
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%d calls, %d hits, %d misses (hit rate %.1f%%), %d filtered, %d memo entries, "
+                        + "peak memo %d KB", getCalls(), getHits(), getMisses(), 100 * getHitRate(),
+                getFiltered(), getMemoEntries(), getPeakMemoBytes() / 1024));
+
+        out.append("\ncalls per depth:");
+        for (int from = 0; from <= MAX_DEPTH; from += 10) {
+            long sum = 0;
+            for (int depth = from; depth < Math.min(from + 10, MAX_DEPTH + 1); depth++)
+                sum += callsPerDepth.get(depth);
+            if (sum > 0)
+                out.append(' ').append(from).append('-').append(from + 9).append(": ").append(sum);
+        }
+
+        return out.toString();
+    }
+
+    public long getSolves() {
+        return solves.get();
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0 : (double) hits.get() / lookups;
+    }
+
+    public long getFiltered() {
+        return filtered.get();
+    }
+
+    public long getMemoEntries() {
+        return memoEntries.get();
+    }
+
+    public long getPeakMemoBytes() {
+        return peakMemoBytes.get();
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * JMX view of {@link SolverStats}: totals over all instances solved in this JVM.
+ */
+public interface SolverStatsMBean {
+
+    long getSolves();
+
+    long getCalls();
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    long getFiltered();
+
+    long getMemoEntries();
+
+    long getPeakMemoBytes();
+}
@@ -1,10 +1,7 @@
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Scanner;
 
 
 public class TardinessCalculator {
@@ -87,27 +84,15 @@ public class TardinessCalculator {
 		ProblemInstance instance = null; 
 		
 		try {
-			Scanner sc = new Scanner(new BufferedReader(new FileReader(filename)));
-			if (sc.hasNextInt()) {
-				numJobs = sc.nextInt();
-				jobs = new int[numJobs][2];
-				int nextJobID = 0;
-				
-				while(sc.hasNextInt() && nextJobID < numJobs) {
-					jobs[nextJobID][0] = sc.nextInt();
-					jobs[nextJobID][1] = sc.nextInt();
-					nextJobID++;
-				}
-				
-			}
+			instance = InstanceFile.readDat(Paths.get(filename));
+			numJobs = instance.getNumJobs();
+			jobs = instance.getJobs();
+
 			System.out.println("number of jobs: " + numJobs);
 			System.out.println(Arrays.deepToString(jobs));
 			
-			sc.close();
-			instance = new ProblemInstance(numJobs, jobs);
-			
-		} catch (FileNotFoundException e) {
-			System.out.println("File not found");
+		} catch (IOException e) {
+			System.out.println("Cannot read " + filename + ": " + e.getMessage());
 			e.printStackTrace();
 		}
 		
@@ -4,12 +4,41 @@ import java.util.Scanner;
 
 public class TestComputation {
 
+    /**
+     * Shared by all runs, so a repeated instance is only solved once. Created by
+     * the first {@link #runCachedDynamic}.
+     */
+    private static ResultCache cache;
+
     public static int runGreedy(ProblemInstance instance) {
         Greedy greedy = new Greedy(instance);
         Schedule schedule = greedy.getSchedule();
         return schedule.getTardiness();
     }
 
+    public static int runBranchAndBound(ProblemInstance instance) {
+        BranchAndBound search = new BranchAndBound(instance);
+        Schedule schedule = search.getSchedule();
+        return schedule.getTardiness();
+    }
+
+    public static int runHeuristic(ProblemInstance instance, String name) {
+        Heuristics heuristics = new Heuristics(instance);
+        return heuristics.tardiness(heuristics.getSequence(name));
+    }
+
+    public static int runLocalSearch(ProblemInstance instance, long budgetMillis) {
+        Heuristics heuristics = new Heuristics(instance);
+        int[] start = heuristics.getSequence("WI");
+
+        LocalSearch search = new LocalSearch(instance);
+        search.improve(start, budgetMillis);
+
+        System.out.println("- Local search: " + search.getInitialTardiness() + " -> " + search.getTardiness()
+                + " after " + search.getIterations() + " perturbations");
+        return search.getTardiness();
+    }
+
     public static int runDynamic(ProblemInstance instance) {
 
         Dynamic dynamic = new Dynamic(instance);
@@ -21,6 +50,64 @@ public class TestComputation {
         }
         return -1000;
     }
+    public static int runDynamicWithDeadline(ProblemInstance instance, long budgetMillis) {
+        Dynamic dynamic = new Dynamic(instance, true);
+        try {
+            SolveResult result = dynamic.solve(System.nanoTime() + budgetMillis * 1000000, null);
+            System.out.println("- Solve: " + result);
+            return result.tardiness;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return -1000;
+    }
+
+    public static int runPiecewiseDynamic(ProblemInstance instance) {
+        Dynamic dynamic = new Dynamic(instance, true);
+        try {
+            return dynamic.calculateTardiness();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return -1000;
+    }
+
+    public static int runBoundedDynamic(ProblemInstance instance) {
+        Dynamic dynamic = new Dynamic(instance, true);
+        try {
+            return dynamic.calculateTardinessBounded();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return -1000;
+    }
+
+    public static int runAdaptiveDynamic(ProblemInstance instance) {
+        Dynamic dynamic = new Dynamic(instance);
+        dynamic.enableAdaptiveMemo();
+        try {
+            return dynamic.calculateTardiness();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return -1000;
+    }
+
+    public static int runParallelDynamic(ProblemInstance instance) {
+        ParallelDynamic dynamic = new ParallelDynamic(instance);
+        return dynamic.calculateTardiness();
+    }
+
+    public static int runImplicitDynamic(ProblemInstance instance) {
+        ImplicitDynamic dynamic = new ImplicitDynamic(instance);
+        return dynamic.calculateTardiness();
+    }
+
+    public static int runIterativeDynamic(ProblemInstance instance) {
+        IterativeDynamic dynamic = new IterativeDynamic(instance);
+        return dynamic.calculateTardiness();
+    }
+
     public static int runDynamicSq(ProblemInstance instance) {
         int[][] jobs = instance.getJobs();
         float[][] jobsDouble = new float[jobs.length][2];
@@ -47,7 +134,39 @@ public class TestComputation {
         return -1000;
     }
 
+    public static int runIntegerApprox(ProblemInstance instance, float epsilon) {
+        IntegerApprox approx = new IntegerApprox(instance, epsilon);
+        return approx.calculateTardiness();
+    }
+
+    public static int runAnytimeApprox(ProblemInstance instance, long budgetMillis) {
+        Approx approx = new Approx(instance, 1);
+        try {
+            return approx.computeTotalTardiness(approx.calculateSequence(budgetMillis));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return -1000;
+    }
+
+    public static int runCachedDynamic(ProblemInstance instance) {
+        if (cache == null)
+            cache = new ResultCache(64L * 1024 * 1024);
+
+        try {
+            return cache.dynamic(instance);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return -1000;
+    }
+
     public static void testInstance(String src, int answer, boolean doGreedy, boolean doDynamic) throws Exception {
+        testInstance(src, answer, doGreedy, doDynamic, new String[0]);
+    }
+
+    public static void testInstance(String src, int answer, boolean doGreedy, boolean doDynamic,
+                                    String[] heuristics) throws Exception {
 
         ProblemInstance instance = ComputeTardiness.readInstance(src + ".dat");
 
@@ -65,12 +184,32 @@ public class TestComputation {
             System.out.println("- Greedy: " + time + " ms");
         }
 
+        for (String heuristic : heuristics) {
+            long t0 = System.nanoTime();
+            int result = runHeuristic(instance, heuristic);
+            long t1 = System.nanoTime();
+            long time = (t1 - t0) / 1000;
+            System.out.println("- " + heuristic + ": " + result + " (optimal " + answer + "), " + time + " us");
+        }
+
 //        Thread.sleep(2000);
         if (doDynamic) {
             long t0 = System.nanoTime();
 //            int result = runApprox(instance, (float)0.3);
+//            int result = runAnytimeApprox(instance, 1000);
+//            int result = runIntegerApprox(instance, (float)0.3);
+//            int result = runLocalSearch(instance, 1000);
             int result = runDynamicSq(instance);
 //            int result = runDynamic(instance);
+//            int result = runPiecewiseDynamic(instance);
+//            int result = runBoundedDynamic(instance);
+//            int result = runAdaptiveDynamic(instance);
+//            int result = runDynamicWithDeadline(instance, 1000);
+//            int result = runCachedDynamic(instance);
+//            int result = runBranchAndBound(instance);
+//            int result = runParallelDynamic(instance);
+//            int result = runImplicitDynamic(instance);
+//            int result = runIterativeDynamic(instance);
             long t1 = System.nanoTime();
             long time = (t1 - t0) / 1000000;
             if (result != answer)
@@ -84,9 +223,10 @@ public class TestComputation {
     public static void main(String args[]) {
 
 
-        if (args.length != 6) {
-            System.out.println("Usage: path/to/answer.file path/to/instance/dir doGreedy doBestFirst start limit");
+        if (args.length != 6 && args.length != 7) {
+            System.out.println("Usage: path/to/answer.file path/to/instance/dir doGreedy doBestFirst start limit [heuristics]");
             System.out.println("  where doGreedy, doDynamic = 0|1");
+            System.out.println("  and heuristics a comma separated list of EDD, SPT, MDD, WI, EDD-SWAP");
             return;
         }
 
@@ -96,6 +236,7 @@ public class TestComputation {
         boolean doDynamic = args[3].equals("1");
         int start = Integer.parseInt(args[4]);
         int limit = Integer.parseInt(args[5]);
+        String[] heuristics = args.length == 7 ? args[6].split(",") : new String[0];
         int x = 0;
 
         try {
@@ -108,7 +249,7 @@ public class TestComputation {
 
                 if (x >= start) {
 //                    Thread.sleep(2000);
-                    testInstance(instanceRoot + '/' + path, ans, doGreedy, doDynamic);
+                    testInstance(instanceRoot + '/' + path, ans, doGreedy, doDynamic, heuristics);
 //                    Thread.sleep(2000);
                 }
             }
@@ -0,0 +1,468 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memo for (i,j,k,t) sub-problems that keeps under a memory cap by spilling cold
+ * (i,j,k) buckets to disk.
+ * <p>
+ * Every bucket holds its start times in a small open-addressing table of its own.
+ * Once the memo takes more than the cap, the least recently used buckets are
+ * written to memory-mapped segment files of SEGMENT_BYTES and their tables dropped
+ * from the heap, in a batch down to 3/4 of what the tables may take. A lookup in an
+ * evicted bucket reads it back from its segment. A bucket that was not changed
+ * since it was read keeps its place on disk and is evicted again without writing;
+ * a changed one is appended anew, so segments are never compacted and only grow
+ * while solving.
+ * <p>
+ * Every bucket also has a fixed cost of BUCKET_BYTES that stays in memory after
+ * eviction. Only the tables count towards the eviction target, and once the fixed
+ * cost alone exceeds the cap, the memo fails with an IllegalStateException rather
+ * than evicting on every call.
+ * <p>
+ * Lookups are counted per tier: found in memory, found after reading a bucket back,
+ * or missing. {@link #close()} unmaps the segments and deletes their files.
+ * <p>
+ * Like {@link MemoTable}, -1 means a missing entry.
+ */
+public class TieredMemo implements AutoCloseable {
+
+    public static final int MEMORY = 0;
+    public static final int DISK = 1;
+    public static final int MISS = 2;
+
+    public static final String[] TIERS = {"memory", "disk", "miss"};
+
+    private static final long SEGMENT_BYTES = 64L << 20;
+
+    /**
+     * Estimated heap cost of a bucket besides its tables: its entry in the index
+     * and its fields below
+     */
+    private static final int BUCKET_BYTES = 64;
+
+    private final long capBytes;
+    private final Path dir;
+
+    /**
+     * Maps (i,j,k,0) to a bucket slot
+     */
+    private MemoTable index;
+
+    /**
+     * Per slot: the table of t + 1 (0 for unused) and values while in memory, the
+     * number of entries, the neighbours in the recency list, and where the bucket
+     * was last written, with whether it changed since.
+     */
+    private int[][] times;
+    private int[][] values;
+    private int[] count;
+    private int[] older;
+    private int[] newer;
+    private int[] segment;
+    private long[] offset;
+    private boolean[] dirty;
+    private int slots;
+
+    /**
+     * The least and most recently used buckets in memory, or -1
+     */
+    private int oldest = -1;
+    private int newest = -1;
+
+    /**
+     * Heap taken by the tables of the buckets in memory
+     */
+    private long tableBytes;
+    private long entries;
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final List<Path> files = new ArrayList<>();
+    private long segmentPosition;
+
+    private long[] lookups = new long[3];
+    private long evictions;
+    private long writtenBytes;
+
+    /**
+     * @param capBytes Estimated heap the buckets in memory may take
+     * @param dir      Directory for the segment files
+     */
+    public TieredMemo(int n, long capBytes, Path dir) {
+        this.capBytes = capBytes;
+        this.dir = dir;
+
+        index = new MemoTable(n);
+
+        times = new int[64][];
+        values = new int[64][];
+        count = new int[64];
+        older = new int[64];
+        newer = new int[64];
+        segment = new int[64];
+        offset = new long[64];
+        dirty = new boolean[64];
+    }
+
+    /**
+     * Return the value of problem (i,j,k,t) or -1 if not available.
+     */
+    public int get(int i, int j, int k, int t) {
+        int slot = index.get(i, j, k, 0);
+        if (slot < 0) {
+            lookups[MISS]++;
+            return -1;
+        }
+
+        boolean resident = times[slot] != null;
+        if (resident)
+            unlink(slot);
+        else
+            load(slot);
+
+        link(slot);
+
+        int value = find(slot, t);
+        lookups[value < 0 ? MISS : resident ? MEMORY : DISK]++;
+
+        if (!resident)
+            evictIfFull();
+
+        return value;
+    }
+
+    /**
+     * Save the value of problem (i,j,k,t), replacing any previous value.
+     */
+    public void set(int i, int j, int k, int t, int value) {
+        int slot = index.get(i, j, k, 0);
+        if (slot < 0)
+            slot = allocate(i, j, k);
+        else if (times[slot] == null)
+            load(slot);
+        else
+            unlink(slot);
+
+        link(slot);
+        dirty[slot] = true;
+
+        put(slot, t, value);
+        evictIfFull();
+    }
+
+    /**
+     * The number of stored entries, in memory and on disk
+     */
+    public long size() {
+        return entries;
+    }
+
+    /**
+     * Estimated heap taken by the memo: the tables of the buckets in memory and the
+     * fixed cost of all buckets
+     */
+    public long bytes() {
+        return tableBytes + fixedBytes();
+    }
+
+    private long fixedBytes() {
+        return (long) slots * BUCKET_BYTES;
+    }
+
+    /**
+     * Bytes of segment files on disk
+     */
+    public long diskBytes() {
+        long bytes = 0;
+        for (MappedByteBuffer buffer : segments)
+            bytes += buffer.capacity();
+        return bytes;
+    }
+
+    /**
+     * The number of buckets, in memory and on disk
+     */
+    public int buckets() {
+        return slots;
+    }
+
+    /**
+     * The number of lookups answered by the given tier, or missing for {@link #MISS}
+     */
+    public long lookups(int tier) {
+        return lookups[tier];
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Bytes written to segments, including buckets written more than once
+     */
+    public long writtenBytes() {
+        return writtenBytes;
+    }
+
+    public String summary() {
+        long total = Math.max(1, lookups[MEMORY] + lookups[DISK] + lookups[MISS]);
+        return String.format("%d entries in %d buckets, %d KB in memory, %d KB on disk, %d evictions; "
+                        + "lookups %.1f%% memory, %.1f%% disk, %.1f%% miss", entries, slots, bytes() / 1024,
+                diskBytes() / 1024, evictions, 100.0 * lookups[MEMORY] / total, 100.0 * lookups[DISK] / total,
+                100.0 * lookups[MISS] / total);
+    }
+
+    /**
+     * Unmap the segments and delete their files. The memo cannot be used afterwards.
+     * <p>
+     * The mappings are released first, since the space of a deleted file that is
+     * still mapped is only returned once the buffer is collected.
+     */
+    @Override
+    public void close() throws IOException {
+        for (MappedByteBuffer buffer : segments)
+            OffHeapMemoTable.free(buffer);
+        segments.clear();
+        for (Path file : files)
+            Files.deleteIfExists(file);
+        files.clear();
+    }
+
+    private int allocate(int i, int j, int k) {
+        if (slots == count.length) {
+            int capacity = slots << 1;
+            times = Arrays.copyOf(times, capacity);
+            values = Arrays.copyOf(values, capacity);
+            count = Arrays.copyOf(count, capacity);
+            older = Arrays.copyOf(older, capacity);
+            newer = Arrays.copyOf(newer, capacity);
+            segment = Arrays.copyOf(segment, capacity);
+            offset = Arrays.copyOf(offset, capacity);
+            dirty = Arrays.copyOf(dirty, capacity);
+        }
+
+        int slot = slots++;
+        times[slot] = new int[8];
+        values[slot] = new int[8];
+        segment[slot] = -1;
+        tableBytes += tableBytes(8);
+
+        index.set(i, j, k, 0, slot);
+        return slot;
+    }
+
+    private int find(int slot, int t) {
+        int[] table = times[slot];
+        int mask = table.length - 1;
+
+        for (int x = MemoTable.slot(t, mask); table[x] != 0; x = (x + 1) & mask)
+            if (table[x] == t + 1)
+                return values[slot][x];
+
+        return -1;
+    }
+
+    private void put(int slot, int t, int value) {
+        int[] table = times[slot];
+        int mask = table.length - 1;
+
+        int x = MemoTable.slot(t, mask);
+        for (; table[x] != 0; x = (x + 1) & mask) {
+            if (table[x] == t + 1) {
+                values[slot][x] = value;
+                return;
+            }
+        }
+
+        table[x] = t + 1;
+        values[slot][x] = value;
+        count[slot]++;
+        entries++;
+
+        // Keep the table at most 3/4 full
+        if (count[slot] * 4 > table.length * 3)
+            rehash(slot, table.length << 1);
+    }
+
+    private void rehash(int slot, int capacity) {
+        int[] oldTimes = times[slot];
+        int[] oldValues = values[slot];
+
+        if (oldTimes != null)
+            tableBytes -= tableBytes(oldTimes.length);
+
+        times[slot] = new int[capacity];
+        values[slot] = new int[capacity];
+        tableBytes += tableBytes(capacity);
+
+        if (oldTimes == null)
+            return;
+
+        int mask = capacity - 1;
+        for (int x = 0; x < oldTimes.length; x++) {
+            if (oldTimes[x] == 0)
+                continue;
+
+            int y = MemoTable.slot(oldTimes[x] - 1, mask);
+            while (times[slot][y] != 0)
+                y = (y + 1) & mask;
+
+            times[slot][y] = oldTimes[x];
+            values[slot][y] = oldValues[x];
+        }
+    }
+
+    private static long tableBytes(int capacity) {
+        return 2L * capacity * Integer.BYTES;
+    }
+
+    private static int tableCapacity(int count) {
+        return Integer.highestOneBit(Math.max(8, count * 4 / 3 + 1) - 1) << 1;
+    }
+
+    /**
+     * Make a bucket in memory the most recently used.
+     */
+    private void link(int slot) {
+        older[slot] = newest;
+        newer[slot] = -1;
+        if (newest >= 0)
+            newer[newest] = slot;
+        else
+            oldest = slot;
+        newest = slot;
+    }
+
+    private void unlink(int slot) {
+        if (older[slot] >= 0)
+            newer[older[slot]] = newer[slot];
+        else
+            oldest = newer[slot];
+        if (newer[slot] >= 0)
+            older[newer[slot]] = older[slot];
+        else
+            newest = older[slot];
+    }
+
+    /**
+     * Evict the least recently used buckets once over the cap, until their tables
+     * take at most 3/4 of what is left of the cap after the fixed cost.
+     */
+    private void evictIfFull() {
+        long fixed = fixedBytes();
+        if (tableBytes + fixed <= capBytes)
+            return;
+
+        if (fixed >= capBytes)
+            throw new IllegalStateException("Memo cap of " + capBytes / 1024 + " KB is below the fixed cost of "
+                    + slots + " buckets, " + fixed / 1024 + " KB");
+
+        // Never the bucket just used
+        long keepBytes = (capBytes - fixed) * 3 / 4;
+        while (tableBytes > keepBytes && oldest != newest)
+            evict(oldest);
+    }
+
+    private void evict(int slot) {
+        if (dirty[slot] || segment[slot] < 0)
+            write(slot);
+
+        unlink(slot);
+        tableBytes -= tableBytes(times[slot].length);
+        times[slot] = null;
+        values[slot] = null;
+        dirty[slot] = false;
+        evictions++;
+    }
+
+    /**
+     * Append the entries of a bucket to the last segment as a count and (t, value)
+     * pairs, starting a new segment when it does not fit.
+     */
+    private void write(int slot) {
+        long size = Integer.BYTES + 2L * Integer.BYTES * count[slot];
+
+        if (segments.isEmpty() || segmentPosition + size > segments.get(segments.size() - 1).capacity())
+            newSegment(Math.max(SEGMENT_BYTES, size));
+
+        MappedByteBuffer buffer = segments.get(segments.size() - 1);
+        int position = (int) segmentPosition;
+
+        buffer.putInt(position, count[slot]);
+        position += Integer.BYTES;
+
+        int[] table = times[slot];
+        for (int x = 0; x < table.length; x++) {
+            if (table[x] != 0) {
+                buffer.putInt(position, table[x] - 1);
+                buffer.putInt(position + Integer.BYTES, values[slot][x]);
+                position += 2 * Integer.BYTES;
+            }
+        }
+
+        segment[slot] = segments.size() - 1;
+        offset[slot] = segmentPosition;
+        segmentPosition += size;
+        writtenBytes += size;
+    }
+
+    /**
+     * Read an evicted bucket back from its segment.
+     */
+    private void load(int slot) {
+        MappedByteBuffer buffer = segments.get(segment[slot]);
+        int position = (int) offset[slot];
+
+        int entries = buffer.getInt(position);
+        position += Integer.BYTES;
+
+        int capacity = tableCapacity(entries);
+        times[slot] = new int[capacity];
+        values[slot] = new int[capacity];
+        tableBytes += tableBytes(capacity);
+
+        int mask = capacity - 1;
+        for (int e = 0; e < entries; e++) {
+            int t = buffer.getInt(position);
+            int value = buffer.getInt(position + Integer.BYTES);
+            position += 2 * Integer.BYTES;
+
+            int x = MemoTable.slot(t, mask);
+            while (times[slot][x] != 0)
+                x = (x + 1) & mask;
+
+            times[slot][x] = t + 1;
+            values[slot][x] = value;
+        }
+    }
+
+    private void newSegment(long size) {
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalStateException("Bucket too large for a segment: " + size + " bytes");
+
+        try {
+            Files.createDirectories(dir);
+            Path file = Files.createTempFile(dir, "memo-", ".seg");
+            files.add(file);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.nativeOrder());
+                segments.add(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        segmentPosition = 0;
+    }
+}